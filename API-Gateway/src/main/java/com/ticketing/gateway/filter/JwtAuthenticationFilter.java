@@ -0,0 +1,96 @@
+package com.ticketing.gateway.filter;
+
+import com.ticketing.gateway.util.JwtVerifier;
+import io.jsonwebtoken.JwtException;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Verifies the bearer token once at the edge and passes the caller's identity
+ * downstream as X-User-Id, X-User-Email and X-User-Role. Those headers are
+ * always stripped from the incoming request, so only the gateway can set them.
+ *
+ * A request with an invalid or expired token is rejected with 401 before the
+ * load balancer picks an instance. A request with no token is forwarded
+ * without identity headers, and so is one to a public auth endpoint: a stale
+ * token left in the client must not block logging in or refreshing.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    // Reachable without a valid access token; a bad one is treated as absent
+    private static final Set<String> PUBLIC_PATHS = Set.of(
+        "/api/auth/login", "/api/auth/register", "/api/auth/refresh", "/api/auth/logout");
+
+    private final JwtVerifier jwtVerifier;
+
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        JwtVerifier.VerifiedToken token = null;
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            try {
+                token = jwtVerifier.verify(authorization.substring(BEARER_PREFIX.length()).trim());
+            } catch (JwtException | IllegalArgumentException e) {
+                if (!PUBLIC_PATHS.contains(exchange.getRequest().getPath().value())) {
+                    return unauthorized(exchange);
+                }
+            }
+        }
+
+        JwtVerifier.VerifiedToken identity = token;
+        ServerHttpRequest request = exchange.getRequest().mutate()
+            .headers(headers -> {
+                headers.remove(USER_ID_HEADER);
+                headers.remove(USER_EMAIL_HEADER);
+                headers.remove(USER_ROLE_HEADER);
+                if (identity != null) {
+                    setIfPresent(headers, USER_ID_HEADER, identity.userId());
+                    setIfPresent(headers, USER_EMAIL_HEADER, identity.email());
+                    setIfPresent(headers, USER_ROLE_HEADER, identity.role());
+                }
+            })
+            .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Ahead of routing to a service instance and every other global filter
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static void setIfPresent(HttpHeaders headers, String name, String value) {
+        if (value != null) {
+            headers.set(name, value);
+        }
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        return response.setComplete();
+    }
+}
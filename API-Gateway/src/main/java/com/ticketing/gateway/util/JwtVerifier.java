@@ -0,0 +1,83 @@
+package com.ticketing.gateway.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Verifies HS256 tokens issued by Auth Service. Must use the same jwt.secret.
+ * Identities of verified tokens are cached by SHA-256 of the token until the
+ * token expires, so a client's repeat requests skip the HMAC and JSON parse.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final Map<String, VerifiedToken> verified;
+
+    public JwtVerifier(@Value("${jwt.secret:mySecretKeyForEventTicketingSystem12345}") String secret,
+                       @Value("${jwt.cache-size:10000}") int cacheSize) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.verified = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * @return Identity carried by the token
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verified.get(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            verified.remove(key);
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Token has no expiry");
+        }
+        Object userId = claims.get("userId");
+        VerifiedToken identity = new VerifiedToken(
+                userId != null ? userId.toString() : null,
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration().toInstant());
+        verified.put(key, identity);
+        return identity;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record VerifiedToken(String userId, String email, String role, Instant expiresAt) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.ticketing.auth.config;
 
+import com.ticketing.auth.util.BCryptCostCalibrator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -16,9 +18,20 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final int MIN_BCRYPT_COST = 10;
+    private static final int MAX_BCRYPT_COST = 16;
+
+    /**
+     * BCrypt with a fixed cost if auth.password.bcrypt.cost is set, otherwise the
+     * highest cost that hashes within auth.password.bcrypt.target-ms on this machine
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt.cost:0}") int cost,
+                                           @Value("${auth.password.bcrypt.target-ms:250}") long targetMs) {
+        int strength = cost > 0
+            ? cost
+            : BCryptCostCalibrator.calibrate(targetMs, MIN_BCRYPT_COST, MAX_BCRYPT_COST);
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -2,8 +2,11 @@ package com.ticketing.auth.controller;
 
 import com.ticketing.auth.dto.AuthResponse;
 import com.ticketing.auth.dto.LoginRequest;
+import com.ticketing.auth.dto.RefreshRequest;
+import com.ticketing.auth.dto.TokenResponse;
 import com.ticketing.auth.entity.User;
 import com.ticketing.auth.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,8 +20,19 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(authService.login(request, clientIp(httpRequest)));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshRequest request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/")
@@ -31,4 +45,10 @@ public class AuthController {
     public ResponseEntity<AuthResponse> register(@RequestBody User user) {
         return ResponseEntity.ok(authService.register(user));
     }
+
+    // Tomcat's RemoteIpValve resolves X-Forwarded-For only when the peer is a trusted proxy
+    // (server.tomcat.remoteip.internal-proxies); for anyone else this is the socket address
+    private String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
 }
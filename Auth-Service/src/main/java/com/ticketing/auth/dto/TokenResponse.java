@@ -0,0 +1,12 @@
+package com.ticketing.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenResponse {
+    private String token;
+    private String refreshToken;
+    private long expiresIn; // Access token lifetime in seconds
+}
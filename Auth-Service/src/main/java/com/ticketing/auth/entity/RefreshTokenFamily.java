@@ -0,0 +1,40 @@
+package com.ticketing.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of one refresh token chain: who it belongs to and the hash
+ * of its current token. Tokens themselves are never stored.
+ */
+@Entity
+@Table(name = "refresh_token_families", indexes = {
+    @Index(name = "idx_refresh_token_families_expires_at", columnList = "expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenFamily {
+    @Id
+    @Column(length = 32)
+    private String familyId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false)
+    private String role;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
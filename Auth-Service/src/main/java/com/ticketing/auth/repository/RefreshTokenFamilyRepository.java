@@ -0,0 +1,28 @@
+package com.ticketing.auth.repository;
+
+import com.ticketing.auth.entity.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, String> {
+    List<RefreshTokenFamily> findByExpiresAtAfter(LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshTokenFamily f WHERE f.familyId IN :familyIds")
+    int deleteByFamilyIds(@Param("familyIds") Collection<String> familyIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshTokenFamily f WHERE f.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
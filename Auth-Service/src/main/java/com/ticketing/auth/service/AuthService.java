@@ -2,34 +2,44 @@ package com.ticketing.auth.service;
 
 import com.ticketing.auth.dto.AuthResponse;
 import com.ticketing.auth.dto.LoginRequest;
+import com.ticketing.auth.dto.RefreshRequest;
+import com.ticketing.auth.dto.TokenResponse;
 import com.ticketing.auth.entity.User;
 import com.ticketing.auth.exception.InvalidCredentialsException;
+import com.ticketing.auth.exception.TooManyRequestsException;
 import com.ticketing.auth.exception.UserAlreadyExistsException;
 import com.ticketing.auth.repository.UserRepository;
 import com.ticketing.auth.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenStore refreshTokenStore;
+
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginRateLimiter.acquire(request.getEmail(), clientIp);
 
-    public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
             .orElseThrow(() -> new InvalidCredentialsException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Invalid email or password");
         }
+        loginRateLimiter.succeeded(request.getEmail());
+        rehashIfNeeded(user, request.getPassword());
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole());
         return new AuthResponse(user.getId(), token, user.getEmail(), user.getFirstName(), 
-                              user.getLastName(), user.getRole());
+                              user.getLastName(), user.getRole(), refreshTokenStore.issue(user));
     }
 
     public AuthResponse register(User user) {
@@ -37,7 +47,7 @@ public class AuthService {
             throw new UserAlreadyExistsException("This email is already registered. Please login to continue.");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getPassword()));
         // Keep the role that was set during signup (USER or ORGANIZER)
         // Only set default role if none was provided
         if (user.getRole() == null || user.getRole().isEmpty()) {
@@ -45,8 +55,33 @@ public class AuthService {
         }
         User savedUser = userRepository.save(user);
 
-        String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getRole());
+        String token = jwtUtil.generateToken(savedUser.getId(), savedUser.getEmail(), savedUser.getRole());
         return new AuthResponse(savedUser.getId(), token, savedUser.getEmail(), savedUser.getFirstName(),
-                              savedUser.getLastName(), savedUser.getRole());
+                              savedUser.getLastName(), savedUser.getRole(), refreshTokenStore.issue(savedUser));
+    }
+
+    // No password check and no database read; the refresh token family carries the identity
+    public TokenResponse refresh(RefreshRequest request) {
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(request.getRefreshToken());
+        String token = jwtUtil.generateToken(rotation.userId(), rotation.email(), rotation.role());
+        return new TokenResponse(token, rotation.refreshToken(), jwtUtil.getExpirationSeconds());
+    }
+
+    public void logout(RefreshRequest request) {
+        refreshTokenStore.revoke(request.getRefreshToken());
+    }
+
+    // The raw password is only available at login, so that is when an old, cheaper hash is upgraded
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHasher.encode(rawPassword));
+            userRepository.save(user);
+        } catch (TooManyRequestsException e) {
+            // Busy; the login still succeeds and the hash is upgraded on a later one
+            log.debug("Skipping password rehash for user {}: hashing pool full", user.getId());
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.ticketing.auth.service;
+
+import com.ticketing.auth.exception.TooManyRequestsException;
+import com.ticketing.auth.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Throttles login attempts per email and per client IP over a sliding window.
+ * Checked before the user lookup and BCrypt, so a rejected attempt costs no
+ * database or hashing work. A successful login clears its email's count.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private final SlidingWindowCounter emailAttempts;
+    private final SlidingWindowCounter ipAttempts;
+    private final int maxPerEmail;
+    private final int maxPerIp;
+    private final long retryAfterSeconds;
+    private final Counter emailRejections;
+    private final Counter ipRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.login-limit.window-seconds:900}") long windowSeconds,
+                            @Value("${auth.login-limit.buckets:15}") int buckets,
+                            @Value("${auth.login-limit.max-per-email:10}") int maxPerEmail,
+                            @Value("${auth.login-limit.max-per-ip:100}") int maxPerIp,
+                            @Value("${auth.login-limit.capacity:65536}") int capacity) {
+        long windowMillis = windowSeconds * 1000;
+        this.emailAttempts = new SlidingWindowCounter(windowMillis, buckets, capacity);
+        this.ipAttempts = new SlidingWindowCounter(windowMillis, buckets, capacity);
+        this.maxPerEmail = maxPerEmail;
+        this.maxPerIp = maxPerIp;
+        // Oldest bucket leaves the window within one bucket length
+        this.retryAfterSeconds = Math.max(1, windowSeconds / buckets);
+
+        this.emailRejections = Counter.builder("auth.login.throttled")
+            .description("Login attempts rejected by the rate limiter")
+            .tag("limit", "email")
+            .register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled")
+            .description("Login attempts rejected by the rate limiter")
+            .tag("limit", "ip")
+            .register(meterRegistry);
+        Gauge.builder("auth.login.tracked", emailAttempts, counter -> counter.activeKeys(System.currentTimeMillis()))
+            .description("Keys with attempts in the current window")
+            .tag("limit", "email")
+            .register(meterRegistry);
+        Gauge.builder("auth.login.tracked", ipAttempts, counter -> counter.activeKeys(System.currentTimeMillis()))
+            .description("Keys with attempts in the current window")
+            .tag("limit", "ip")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Count a login attempt
+     * @throws TooManyRequestsException if the IP or the email is over its limit
+     */
+    public void acquire(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (clientIp != null && !ipAttempts.tryAcquire(SlidingWindowCounter.hash(clientIp), maxPerIp, now)) {
+            ipRejections.increment();
+            throw rejected();
+        }
+        if (email != null && !emailAttempts.tryAcquire(emailKey(email), maxPerEmail, now)) {
+            emailRejections.increment();
+            throw rejected();
+        }
+    }
+
+    public void succeeded(String email) {
+        if (email != null) {
+            emailAttempts.reset(emailKey(email));
+        }
+    }
+
+    private TooManyRequestsException rejected() {
+        return new TooManyRequestsException("Too many login attempts, please try again later", retryAfterSeconds);
+    }
+
+    private static long emailKey(String email) {
+        return SlidingWindowCounter.hash(email.trim().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,64 @@
+package com.ticketing.auth.service;
+
+import com.ticketing.auth.exception.TooManyRequestsException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Runs password hashing on the bounded passwordHashExecutor. The request
+ * thread still waits for the result; what the executor buys is a cap on
+ * concurrent BCrypt work at the core count, so a login burst queues instead
+ * of starving every other request of CPU. When the executor's queue is full
+ * the caller gets a {@link TooManyRequestsException} straight away.
+ */
+@Service
+@RequiredArgsConstructor
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashExecutor;
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True if the hash was made with a lower cost than the one now configured
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = passwordHashExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            throw new TooManyRequestsException("Too many authentication requests, please try again shortly");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            // Nobody will read the result; free the slot if the hash has not started
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
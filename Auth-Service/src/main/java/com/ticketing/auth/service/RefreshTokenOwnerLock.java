@@ -0,0 +1,117 @@
+package com.ticketing.auth.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * PostgreSQL advisory lock marking the auth-service instance that owns the
+ * refresh token families.
+ *
+ * The lock is session-level, so it lives on a connection opened with
+ * DriverManager instead of one borrowed from the pool: Hikari never recycles
+ * it, and the pool keeps its full size. The lock is never unlocked
+ * explicitly; it goes when the session does, on shutdown or when the
+ * connection dies, which {@link #isHeld()} detects.
+ *
+ * Other databases have no such lock; there the store assumes it is the only
+ * instance.
+ */
+@Component
+@Slf4j
+public class RefreshTokenOwnerLock {
+
+    // Advisory lock key held by the instance that owns the families
+    private static final long LOCK_KEY = 0x52544b53L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean supported;
+
+    private Connection connection;
+
+    public RefreshTokenOwnerLock(@Value("${spring.datasource.url}") String url,
+                                 @Value("${spring.datasource.username:}") String username,
+                                 @Value("${spring.datasource.password:}") String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.supported = url.startsWith("jdbc:postgresql:");
+        if (!supported) {
+            log.warn("Refresh token store cannot lock {}; run a single auth-service instance", url);
+        }
+    }
+
+    /**
+     * Take the lock unless another session has it
+     * @return true if this instance holds the lock afterwards
+     */
+    public synchronized boolean tryAcquire() {
+        if (isHeld()) {
+            return true;
+        }
+        Connection candidate = null;
+        try {
+            candidate = DriverManager.getConnection(url, username, password);
+            try (PreparedStatement statement = candidate.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, LOCK_KEY);
+                try (ResultSet result = statement.executeQuery()) {
+                    if (result.next() && result.getBoolean(1)) {
+                        connection = candidate;
+                        return true;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Could not take the refresh token owner lock: {}", e.getMessage());
+        }
+        closeQuietly(candidate);
+        return false;
+    }
+
+    /**
+     * Whether the session holding the lock is still alive; drops it if not
+     */
+    public synchronized boolean isHeld() {
+        if (!supported) {
+            return true;
+        }
+        if (connection == null) {
+            return false;
+        }
+        try {
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            log.warn("Refresh token owner connection check failed: {}", e.getMessage());
+        }
+        closeQuietly(connection);
+        connection = null;
+        return false;
+    }
+
+    public synchronized void release() {
+        closeQuietly(connection);
+        connection = null;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close refresh token owner connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.ticketing.auth.service;
+
+import com.ticketing.auth.entity.RefreshTokenFamily;
+import com.ticketing.auth.entity.User;
+import com.ticketing.auth.exception.InvalidCredentialsException;
+import com.ticketing.auth.exception.ServiceUnavailableException;
+import com.ticketing.auth.repository.RefreshTokenFamilyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rotating refresh tokens, validated from memory.
+ *
+ * A login starts a family; its token is {@code familyId.secret} and only the
+ * SHA-256 of the secret is kept. Each refresh replaces the family's token, so
+ * a token works once. Presenting a replaced token means it was copied, and
+ * revokes the whole family. Changed families are written to
+ * refresh_token_families in batches every few seconds, and loaded back on
+ * startup. A crash can lose the last few seconds of rotations; those clients
+ * have to log in again.
+ *
+ * A token replaced less than a grace period ago is not treated as reuse: it
+ * gets the same answer as the refresh that replaced it, so two tabs refreshing
+ * at once both end up with the same token.
+ *
+ * Memory is the source of truth, so only one instance may serve refresh
+ * tokens; another would accept tokens this one has already replaced. The
+ * owner holds {@link RefreshTokenOwnerLock}, checked every few seconds. Other
+ * instances start as standbys: they answer issue, refresh and logout with 503
+ * and keep trying the lock, then load the families once they get it. So a
+ * rolling deploy works, but token requests reaching the new instance fail
+ * until the old one has stopped and flushed, for up to one check interval
+ * after that. An owner that loses the lock, e.g. because its connection
+ * died, drops its families and fails closed the same way until it takes the
+ * lock back; rotations it had not flushed are lost, as on a crash.
+ */
+@Service
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final String INVALID_TOKEN = "Invalid or expired refresh token";
+
+    private static final String UNAVAILABLE = "Refresh tokens are served by another auth-service instance; try again shortly";
+
+    private final RefreshTokenFamilyRepository repository;
+    private final RefreshTokenOwnerLock ownerLock;
+    private final Duration ttl;
+    private final Duration reuseGrace;
+    private final long retryAfterSeconds;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // Whether this instance holds the owner lock and its families are loaded
+    private volatile boolean owner;
+
+    public RefreshTokenStore(RefreshTokenFamilyRepository repository,
+                             RefreshTokenOwnerLock ownerLock,
+                             @Value("${jwt.refresh.ttl-days:14}") long ttlDays,
+                             @Value("${jwt.refresh.reuse-grace-seconds:30}") long reuseGraceSeconds,
+                             @Value("${jwt.refresh.owner-check-ms:5000}") long ownerCheckMillis) {
+        this.repository = repository;
+        this.ownerLock = ownerLock;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.reuseGrace = Duration.ofSeconds(reuseGraceSeconds);
+        this.retryAfterSeconds = Math.max(1, (ownerCheckMillis + 999) / 1000);
+    }
+
+    @PostConstruct
+    public void load() {
+        checkOwnership();
+        if (!owner) {
+            log.info("Another auth-service instance owns the refresh token families; standing by");
+        }
+    }
+
+    /**
+     * Verify the owner lock is still held, or try to take it when it is not
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.owner-check-ms:5000}")
+    public void checkOwnership() {
+        if (owner) {
+            if (ownerLock.isHeld()) {
+                return;
+            }
+            owner = false;
+            families.clear();
+            dirty.clear();
+            log.error("Lost the refresh token owner lock; refusing refresh tokens until it is taken again");
+        }
+        if (!ownerLock.tryAcquire()) {
+            return;
+        }
+        families.clear();
+        dirty.clear();
+        for (RefreshTokenFamily entity : repository.findByExpiresAtAfter(LocalDateTime.now())) {
+            families.put(entity.getFamilyId(), new Family(entity.getUserId(), entity.getEmail(), entity.getRole(),
+                entity.getTokenHash(), entity.getExpiresAt(), null, null, null));
+        }
+        owner = true;
+        log.info("Took the refresh token owner lock; loaded {} refresh token families", families.size());
+    }
+
+    /**
+     * Start a new family for a login
+     * @return Refresh token
+     */
+    public String issue(User user) {
+        requireOwner();
+        String familyId = HexFormat.of().formatHex(randomBytes(16));
+        String secret = newSecret();
+        families.put(familyId, new Family(user.getId(), user.getEmail(), user.getRole(),
+            hash(secret), LocalDateTime.now().plus(ttl), null, null, null));
+        dirty.add(familyId);
+        return familyId + "." + secret;
+    }
+
+    /**
+     * Exchange a refresh token for the next one in its family
+     * @throws InvalidCredentialsException if the token is unknown, expired or already used
+     */
+    public Rotation rotate(String refreshToken) {
+        requireOwner();
+        String[] parts = split(refreshToken);
+        String presentedHash = hash(parts[1]);
+        AtomicReference<Rotation> rotation = new AtomicReference<>();
+        AtomicBoolean changed = new AtomicBoolean();
+
+        families.computeIfPresent(parts[0], (familyId, family) -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (family.expiresAt().isBefore(now)) {
+                changed.set(true);
+                return null;
+            }
+            if (matches(presentedHash, family.tokenHash())) {
+                String secret = newSecret();
+                String token = familyId + "." + secret;
+                rotation.set(new Rotation(token, family.userId(), family.email(), family.role()));
+                changed.set(true);
+                return new Family(family.userId(), family.email(), family.role(), hash(secret), family.expiresAt(),
+                    presentedHash, token, now);
+            }
+            if (family.previousHash() != null && matches(presentedHash, family.previousHash())
+                    && family.rotatedAt().plus(reuseGrace).isAfter(now)) {
+                // Concurrent refresh with the token just replaced, e.g. from another tab
+                rotation.set(new Rotation(family.currentToken(), family.userId(), family.email(), family.role()));
+                return family;
+            }
+            log.warn("Reused refresh token for user {}, revoking its family", family.userId());
+            changed.set(true);
+            return null;
+        });
+
+        // Marked after the mapping is in place, so a concurrent flush never writes the old one and clears the mark
+        if (changed.get()) {
+            dirty.add(parts[0]);
+        }
+        if (rotation.get() == null) {
+            throw new InvalidCredentialsException(INVALID_TOKEN);
+        }
+        return rotation.get();
+    }
+
+    /**
+     * End the token's family, e.g. on logout
+     */
+    public void revoke(String refreshToken) {
+        requireOwner();
+        String[] parts = split(refreshToken);
+        String presentedHash = hash(parts[1]);
+        AtomicBoolean removed = new AtomicBoolean();
+        families.computeIfPresent(parts[0], (familyId, family) -> {
+            if (!matches(presentedHash, family.tokenHash())) {
+                return family;
+            }
+            removed.set(true);
+            return null;
+        });
+        if (removed.get()) {
+            dirty.add(parts[0]);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.flush-interval-ms:5000}")
+    public void flush() {
+        // Never write over the families of an instance that took the lock after this one lost it
+        if (!owner || dirty.isEmpty() || !ownerLock.isHeld()) {
+            return;
+        }
+        List<RefreshTokenFamily> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (String familyId : List.copyOf(dirty)) {
+            dirty.remove(familyId);
+            Family family = families.get(familyId);
+            if (family != null) {
+                changed.add(new RefreshTokenFamily(familyId, family.userId(), family.email(), family.role(),
+                    family.tokenHash(), family.expiresAt()));
+            } else {
+                removed.add(familyId);
+            }
+        }
+        try {
+            repository.saveAll(changed);
+            if (!removed.isEmpty()) {
+                repository.deleteByFamilyIds(removed);
+            }
+        } catch (RuntimeException e) {
+            // Write them again next time
+            changed.forEach(family -> dirty.add(family.getFamilyId()));
+            dirty.addAll(removed);
+            log.warn("Failed to persist {} refresh token families: {}", changed.size() + removed.size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!owner) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        families.values().removeIf(family -> family.expiresAt().isBefore(now));
+        int purged = repository.deleteExpired(now);
+        if (purged > 0) {
+            log.info("Purged {} expired refresh token families", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        owner = false;
+        ownerLock.release();
+    }
+
+    private void requireOwner() {
+        if (!owner) {
+            throw new ServiceUnavailableException(UNAVAILABLE, retryAfterSeconds);
+        }
+    }
+
+    private String[] split(String refreshToken) {
+        int dot = refreshToken != null ? refreshToken.indexOf('.') : -1;
+        if (dot <= 0 || dot == refreshToken.length() - 1) {
+            throw new InvalidCredentialsException(INVALID_TOKEN);
+        }
+        return new String[] {refreshToken.substring(0, dot), refreshToken.substring(dot + 1)};
+    }
+
+    private String newSecret() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes(32));
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static boolean matches(String presentedHash, String storedHash) {
+        return MessageDigest.isEqual(presentedHash.getBytes(StandardCharsets.UTF_8),
+            storedHash.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of a refresh: the next token and the identity for the new access token
+     */
+    public record Rotation(String refreshToken, Long userId, String email, String role) {
+    }
+
+    /**
+     * @param previousHash Hash of the token this one replaced, accepted during the grace period
+     * @param currentToken The current token itself, returned again during the grace period; never persisted
+     */
+    private record Family(Long userId, String email, String role, String tokenHash, LocalDateTime expiresAt,
+                          String previousHash, String currentToken, LocalDateTime rotatedAt) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.ticketing.auth.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the BCrypt cost for this machine. Each cost step doubles the work, so
+ * one timed hash at the minimum cost is enough to estimate the others.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * @return Highest cost in [minCost, maxCost] whose hash takes at most targetMs, or minCost
+     */
+    public static int calibrate(long targetMs, int minCost, int maxCost) {
+        // Warm up so the timed run is not dominated by class loading and JIT
+        for (int i = 0; i < 3; i++) {
+            BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(4));
+        }
+
+        long start = System.nanoTime();
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(minCost));
+        double estimatedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        int cost = minCost;
+        while (cost < maxCost && estimatedMs * 2 <= targetMs) {
+            cost++;
+            estimatedMs *= 2;
+        }
+        log.info("BCrypt cost calibrated to {} (~{} ms per hash, target {} ms)", cost, Math.round(estimatedMs), targetMs);
+        return cost;
+    }
+}
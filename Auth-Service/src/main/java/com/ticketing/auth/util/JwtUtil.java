@@ -1,60 +1,108 @@
 package com.ticketing.auth.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:mySecretKeyForEventTicketingSystem12345}")
-    private String secret;
+    private final long expiration;
 
-    @Value("${jwt.expiration:86400000}")
-    private long expiration;
+    // Derived once; the parser is immutable and safe to share between threads
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Verified claims by SHA-256 of the token, kept until the token expires
+    private final Map<String, Claims> verified;
+
+    public JwtUtil(@Value("${jwt.secret:mySecretKeyForEventTicketingSystem12345}") String secret,
+                   @Value("${jwt.expiration:900000}") long expiration,
+                   @Value("${jwt.cache-size:10000}") int cacheSize) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verified = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > cacheSize;
+            }
+        });
     }
 
     // -------------------------
     // Generate Token
     // -------------------------
-    public String generateToken(String email, String role) {
+    public String generateToken(Long userId, String email, String role) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
         claims.put("role", role);
         return createToken(claims, email);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
+    public long getExpirationSeconds() {
+        return expiration / 1000;
+    }
+
+    // -------------------------
+    // Parse Token
+    // -------------------------
+
+    /**
+     * Verify the token once and return its claims; use these for both the
+     * validity check and any claim lookups.
+     * @throws JwtException if the token is malformed, forged or expired
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT is empty");
+        }
+        String key = hash(token);
+        Claims claims = verified.get(key);
+        if (claims != null) {
+            if (claims.getExpiration() != null && claims.getExpiration().after(new Date())) {
+                return claims;
+            }
+            verified.remove(key);
+            // Fall through so the parser reports the expiry
+        }
+        claims = parser.parseSignedClaims(token).getPayload();
+        verified.put(key, claims);
+        return claims;
+    }
+
     // -------------------------
     // Extract Email
     // -------------------------
     public String extractEmail(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())   // NEW API
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
+        return parseClaims(token).getSubject();
     }
 
     // -------------------------
@@ -62,14 +110,19 @@ public class JwtUtil {
     // -------------------------
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())  // NEW API
-                    .build()
-                    .parseSignedClaims(token);
-
+            parseClaims(token);
             return true;
-        } catch (Exception e) {
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
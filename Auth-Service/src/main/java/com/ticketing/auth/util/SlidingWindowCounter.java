@@ -0,0 +1,177 @@
+package com.ticketing.auth.util;
+
+/**
+ * Fixed-size table of per-key event counts over a sliding time window.
+ *
+ * Keys are 64-bit hashes, so no strings are kept. The window is split into
+ * buckets, and each slot holds one count per bucket in a ring; buckets that
+ * fell out of the window are zeroed on the next touch. The table never grows:
+ * when a key's segment is full, the slot touched longest ago is reused, so a
+ * flood of distinct keys costs counts for idle keys, not memory.
+ */
+public final class SlidingWindowCounter {
+
+    private static final int SEGMENTS = 1024;
+
+    private final int buckets;
+    private final long bucketMillis;
+    private final int segmentSize;
+
+    private final long[] keys;        // 0 marks an empty slot
+    private final long[] lastBucket;  // Absolute bucket index of the slot's latest event
+    private final int[] counts;       // buckets counts per slot
+    private final Object[] locks;
+
+    /**
+     * @param windowMillis Window length
+     * @param buckets Resolution of the window; more buckets slide more smoothly
+     * @param capacity Keys tracked at once, rounded up to a multiple of the segment count
+     */
+    public SlidingWindowCounter(long windowMillis, int buckets, int capacity) {
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.segmentSize = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        int slots = segmentSize * SEGMENTS;
+        this.keys = new long[slots];
+        this.lastBucket = new long[slots];
+        this.counts = new int[slots * buckets];
+        this.locks = new Object[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Count an event for the key unless it already has {@code limit} in the window
+     * @return true if the event was counted, false if the key is over the limit
+     */
+    public boolean tryAcquire(long key, int limit, long nowMillis) {
+        key = nonZero(key);
+        long bucket = nowMillis / bucketMillis;
+        int segment = segmentOf(key);
+        synchronized (locks[segment]) {
+            int slot = findOrClaim(segment, key, bucket);
+            expire(slot, bucket);
+            if (sum(slot) >= limit) {
+                return false;
+            }
+            counts[slot * buckets + (int) (bucket % buckets)]++;
+            lastBucket[slot] = bucket;
+            return true;
+        }
+    }
+
+    /**
+     * Forget the key's events
+     */
+    public void reset(long key) {
+        key = nonZero(key);
+        int segment = segmentOf(key);
+        synchronized (locks[segment]) {
+            int slot = find(segment, key);
+            if (slot >= 0) {
+                keys[slot] = 0;
+                clear(slot);
+            }
+        }
+    }
+
+    /**
+     * Keys with at least one event in the window
+     */
+    public int activeKeys(long nowMillis) {
+        long oldest = nowMillis / bucketMillis - buckets + 1;
+        int active = 0;
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            synchronized (locks[segment]) {
+                int start = segment * segmentSize;
+                for (int slot = start; slot < start + segmentSize; slot++) {
+                    if (keys[slot] != 0 && lastBucket[slot] >= oldest) {
+                        active++;
+                    }
+                }
+            }
+        }
+        return active;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a string, for use as a key
+     */
+    public static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private int find(int segment, long key) {
+        int start = segment * segmentSize;
+        for (int slot = start; slot < start + segmentSize; slot++) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int findOrClaim(int segment, long key, long bucket) {
+        int start = segment * segmentSize;
+        int victim = start;
+        for (int slot = start; slot < start + segmentSize; slot++) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            if (keys[slot] == 0 || lastBucket[slot] < lastBucket[victim] && keys[victim] != 0) {
+                victim = slot;
+            }
+        }
+        // Empty slot, or the least recently touched one
+        keys[victim] = key;
+        lastBucket[victim] = bucket;
+        clear(victim);
+        return victim;
+    }
+
+    // Zero the ring positions not reused since they left the window
+    private void expire(int slot, long bucket) {
+        long elapsed = bucket - lastBucket[slot];
+        if (elapsed <= 0) {
+            return;
+        }
+        if (elapsed >= buckets) {
+            clear(slot);
+            return;
+        }
+        for (long b = lastBucket[slot] + 1; b <= bucket; b++) {
+            counts[slot * buckets + (int) (b % buckets)] = 0;
+        }
+        lastBucket[slot] = bucket;
+    }
+
+    private int sum(int slot) {
+        int total = 0;
+        int base = slot * buckets;
+        for (int i = 0; i < buckets; i++) {
+            total += counts[base + i];
+        }
+        return total;
+    }
+
+    private void clear(int slot) {
+        int base = slot * buckets;
+        for (int i = 0; i < buckets; i++) {
+            counts[base + i] = 0;
+        }
+    }
+
+    private int segmentOf(long key) {
+        return (int) ((key ^ (key >>> 32)) & (SEGMENTS - 1));
+    }
+
+    private static long nonZero(long key) {
+        return key == 0 ? 1 : key;
+    }
+}
@@ -0,0 +1,206 @@
+package com.ticketing.auth.service;
+
+import com.ticketing.auth.entity.RefreshTokenFamily;
+import com.ticketing.auth.entity.User;
+import com.ticketing.auth.exception.InvalidCredentialsException;
+import com.ticketing.auth.exception.ServiceUnavailableException;
+import com.ticketing.auth.repository.RefreshTokenFamilyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenStoreTest {
+
+    private RefreshTokenFamilyRepository repository;
+    private RefreshTokenOwnerLock ownerLock;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenFamilyRepository.class);
+        ownerLock = mock(RefreshTokenOwnerLock.class);
+        when(ownerLock.tryAcquire()).thenReturn(true);
+        when(ownerLock.isHeld()).thenReturn(true);
+        user = new User();
+        user.setId(7L);
+        user.setEmail("ada@example.com");
+        user.setRole("USER");
+    }
+
+    @Test
+    void rotationReplacesTokenAndKeepsIdentity() {
+        RefreshTokenStore store = store(30);
+        String token = store.issue(user);
+
+        RefreshTokenStore.Rotation rotation = store.rotate(token);
+
+        assertNotEquals(token, rotation.refreshToken());
+        assertEquals(familyOf(token), familyOf(rotation.refreshToken()));
+        assertEquals(7L, rotation.userId());
+        assertEquals("ada@example.com", rotation.email());
+        assertEquals("USER", rotation.role());
+        // The new token rotates in turn
+        assertNotEquals(rotation.refreshToken(), store.rotate(rotation.refreshToken()).refreshToken());
+    }
+
+    @Test
+    void replacedTokenWithinGraceGetsSameAnswer() {
+        RefreshTokenStore store = store(30);
+        String token = store.issue(user);
+        RefreshTokenStore.Rotation first = store.rotate(token);
+
+        RefreshTokenStore.Rotation second = store.rotate(token);
+
+        assertEquals(first.refreshToken(), second.refreshToken());
+        // The family survives, so the current token still works
+        store.rotate(first.refreshToken());
+    }
+
+    @Test
+    void replacedTokenAfterGraceRevokesFamily() {
+        RefreshTokenStore store = store(0);
+        String token = store.issue(user);
+        RefreshTokenStore.Rotation rotation = store.rotate(token);
+
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate(token));
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate(rotation.refreshToken()));
+    }
+
+    @Test
+    void forgedSecretRevokesFamily() {
+        RefreshTokenStore store = store(30);
+        String token = store.issue(user);
+
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate(familyOf(token) + ".forged"));
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate(token));
+    }
+
+    @Test
+    void malformedAndUnknownTokensAreRejected() {
+        RefreshTokenStore store = store(30);
+
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate(null));
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate("no-dot"));
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate("family."));
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate("unknown.secret"));
+    }
+
+    @Test
+    void revokeEndsFamily() {
+        RefreshTokenStore store = store(30);
+        String token = store.issue(user);
+
+        store.revoke(token);
+
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate(token));
+    }
+
+    @Test
+    void revokeWithWrongSecretIsIgnored() {
+        RefreshTokenStore store = store(30);
+        String token = store.issue(user);
+
+        store.revoke(familyOf(token) + ".wrong");
+
+        store.rotate(token);
+    }
+
+    @Test
+    void flushWritesChangedAndDeletesRevokedFamilies() {
+        RefreshTokenStore store = store(30);
+        String kept = store.issue(user);
+        String revoked = store.issue(user);
+        store.revoke(revoked);
+
+        store.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RefreshTokenFamily>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertEquals(List.of(familyOf(kept)), saved.getValue().stream().map(RefreshTokenFamily::getFamilyId).toList());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).deleteByFamilyIds(deleted.capture());
+        assertEquals(List.of(familyOf(revoked)), List.copyOf(deleted.getValue()));
+    }
+
+    @Test
+    void loadsPersistedFamiliesWhenTakingOwnership() throws Exception {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(new RefreshTokenFamily(
+            "abc", 7L, "ada@example.com", "USER", sha256("secret"), LocalDateTime.now().plusDays(1))));
+        RefreshTokenStore store = store(30);
+
+        RefreshTokenStore.Rotation rotation = store.rotate("abc.secret");
+
+        assertEquals(7L, rotation.userId());
+    }
+
+    @Test
+    void standbyFailsClosedUntilItTakesTheLock() {
+        when(ownerLock.tryAcquire()).thenReturn(false);
+        RefreshTokenStore store = store(30);
+
+        assertThrows(ServiceUnavailableException.class, () -> store.issue(user));
+        assertThrows(ServiceUnavailableException.class, () -> store.rotate("abc.secret"));
+        assertThrows(ServiceUnavailableException.class, () -> store.revoke("abc.secret"));
+        store.flush();
+        verify(repository, never()).saveAll(anyList());
+
+        when(ownerLock.tryAcquire()).thenReturn(true);
+        store.checkOwnership();
+
+        store.rotate(store.issue(user));
+    }
+
+    @Test
+    void lostLockDropsFamiliesAndFailsClosed() {
+        RefreshTokenStore store = store(30);
+        String token = store.issue(user);
+
+        when(ownerLock.isHeld()).thenReturn(false);
+        when(ownerLock.tryAcquire()).thenReturn(false);
+        store.checkOwnership();
+
+        assertThrows(ServiceUnavailableException.class, () -> store.rotate(token));
+        store.flush();
+        verify(repository, never()).saveAll(anyList());
+
+        // Retaken from the database, where the unflushed family never arrived
+        when(ownerLock.isHeld()).thenReturn(true);
+        when(ownerLock.tryAcquire()).thenReturn(true);
+        store.checkOwnership();
+        assertThrows(InvalidCredentialsException.class, () -> store.rotate(token));
+    }
+
+    private RefreshTokenStore store(long reuseGraceSeconds) {
+        RefreshTokenStore store = new RefreshTokenStore(repository, ownerLock, 14, reuseGraceSeconds, 5000);
+        store.load();
+        return store;
+    }
+
+    private static String familyOf(String token) {
+        return token.substring(0, token.indexOf('.'));
+    }
+
+    private static String sha256(String value) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
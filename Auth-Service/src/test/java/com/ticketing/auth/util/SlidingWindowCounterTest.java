@@ -0,0 +1,110 @@
+package com.ticketing.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowCounterTest {
+
+    // 1 s window in 10 buckets of 100 ms
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(1000, 10, 4096);
+
+    @Test
+    void allowsUpToLimitWithinWindow() {
+        assertTrue(counter.tryAcquire(42, 3, 0));
+        assertTrue(counter.tryAcquire(42, 3, 10));
+        assertTrue(counter.tryAcquire(42, 3, 20));
+        assertFalse(counter.tryAcquire(42, 3, 30));
+        assertFalse(counter.tryAcquire(42, 3, 999));
+    }
+
+    @Test
+    void rejectedAttemptsAreNotCounted() {
+        counter.tryAcquire(42, 1, 0);
+        for (int i = 0; i < 5; i++) {
+            assertFalse(counter.tryAcquire(42, 1, 500));
+        }
+
+        assertTrue(counter.tryAcquire(42, 1, 1000));
+    }
+
+    @Test
+    void oldBucketsSlideOutOfWindow() {
+        assertTrue(counter.tryAcquire(42, 2, 0));
+        assertTrue(counter.tryAcquire(42, 2, 500));
+        assertFalse(counter.tryAcquire(42, 2, 900));
+
+        // The event at 0 ms has left the window, the one at 500 ms has not
+        assertTrue(counter.tryAcquire(42, 2, 1000));
+        assertFalse(counter.tryAcquire(42, 2, 1100));
+    }
+
+    @Test
+    void windowFullyExpiresAfterLongIdle() {
+        counter.tryAcquire(42, 2, 0);
+        counter.tryAcquire(42, 2, 50);
+
+        assertTrue(counter.tryAcquire(42, 2, 60_000));
+        assertTrue(counter.tryAcquire(42, 2, 60_010));
+        assertFalse(counter.tryAcquire(42, 2, 60_020));
+    }
+
+    @Test
+    void keysAreCountedSeparately() {
+        assertTrue(counter.tryAcquire(1, 1, 0));
+        assertFalse(counter.tryAcquire(1, 1, 0));
+
+        assertTrue(counter.tryAcquire(2, 1, 0));
+    }
+
+    @Test
+    void zeroKeyIsUsable() {
+        assertTrue(counter.tryAcquire(0, 1, 0));
+        assertFalse(counter.tryAcquire(0, 1, 0));
+    }
+
+    @Test
+    void resetForgetsKey() {
+        counter.tryAcquire(42, 1, 0);
+
+        counter.reset(42);
+
+        assertTrue(counter.tryAcquire(42, 1, 10));
+        counter.reset(7); // unknown key
+    }
+
+    @Test
+    void activeKeysCountsOnlyKeysInWindow() {
+        counter.tryAcquire(1, 5, 0);
+        counter.tryAcquire(2, 5, 500);
+        counter.tryAcquire(3, 5, 900);
+
+        assertEquals(3, counter.activeKeys(900));
+        assertEquals(2, counter.activeKeys(1000));
+        assertEquals(0, counter.activeKeys(5000));
+    }
+
+    @Test
+    void fullSegmentReusesLeastRecentlyTouchedSlot() {
+        // One slot per segment; keys 1 and 1025 land in the same segment
+        SlidingWindowCounter small = new SlidingWindowCounter(1000, 10, 1);
+        assertTrue(small.tryAcquire(1, 1, 0));
+        assertFalse(small.tryAcquire(1, 1, 0));
+
+        assertTrue(small.tryAcquire(1025, 1, 100));
+
+        // Key 1 lost its slot, and its count with it
+        assertTrue(small.tryAcquire(1, 1, 200));
+        assertEquals(1, small.activeKeys(200));
+    }
+
+    @Test
+    void hashIsFnv1a() {
+        assertEquals(0xcbf29ce484222325L, SlidingWindowCounter.hash(""));
+        assertEquals(0xaf63dc4c8601ec8cL, SlidingWindowCounter.hash("a"));
+        assertNotEquals(SlidingWindowCounter.hash("10.0.0.1"), SlidingWindowCounter.hash("10.0.0.2"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ticketing.event.cache;
+
+import com.ticketing.event.entity.Event;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache names for the event catalog and targeted eviction when events or
+ * their inventory change. Reads are cached with @Cacheable in EventService;
+ * sizing, TTL and stats recording come from spring.cache.caffeine.spec.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventCatalogCache {
+
+    public static final String EVENTS_BY_ID = "eventsById";
+    public static final String EVENTS_BY_CATEGORY = "eventsByCategory";
+    public static final String ACTIVE_EVENTS = "activeEvents";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Evicts an event along with the category list and active list it appears in.
+     */
+    public void evict(Event event) {
+        cache(EVENTS_BY_ID).evict(event.getId());
+        evictCategory(event.getCategory());
+        cache(ACTIVE_EVENTS).clear();
+    }
+
+    /**
+     * Evicts an event known only by id. The category comes from the cached entry
+     * when present; otherwise every category list is dropped.
+     */
+    public void evict(Long eventId) {
+        Event cached = cache(EVENTS_BY_ID).get(eventId, Event.class);
+        if (cached != null) {
+            evict(cached);
+            return;
+        }
+        cache(EVENTS_BY_CATEGORY).clear();
+        cache(ACTIVE_EVENTS).clear();
+    }
+
+    public void evictCategory(String category) {
+        if (category != null) {
+            cache(EVENTS_BY_CATEGORY).evict(category);
+        }
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + name);
+        }
+        return cache;
+    }
+}
@@ -1,8 +1,13 @@
 package com.ticketing.event.controller;
 
+import com.ticketing.event.dto.CursorPage;
+import com.ticketing.event.dto.SeatReservationRequest;
+import com.ticketing.event.dto.SeatReservationResult;
 import com.ticketing.event.entity.Event;
+import com.ticketing.event.inventory.SeatHold;
 import com.ticketing.event.service.EventService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +26,12 @@ public class EventController {
         return ResponseEntity.ok(eventService.getAllEvents());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Event>> getEventsPage(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(eventService.getEventsPage(cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Event> getEventById(@PathVariable Long id) {
         return ResponseEntity.ok(eventService.getEventById(id));
@@ -51,4 +62,35 @@ public class EventController {
         eventService.deleteEvent(id);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Integer> getAvailability(@PathVariable Long id) {
+        return ResponseEntity.ok(eventService.getAvailableTickets(id));
+    }
+
+    @PostMapping("/{id}/holds")
+    public ResponseEntity<SeatHold> reserveSeats(@PathVariable Long id, @RequestParam Integer quantity) {
+        SeatHold hold = eventService.reserveSeats(id, quantity);
+        if (hold == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(hold);
+    }
+
+    @PostMapping("/reservations/batch")
+    public ResponseEntity<List<SeatReservationResult>> reserveSeatsBatch(
+            @RequestBody List<SeatReservationRequest> reservations) {
+        return ResponseEntity.ok(eventService.reserveSeatsBatch(reservations));
+    }
+
+    @PostMapping("/holds/{holdId}/commit")
+    public ResponseEntity<SeatHold> commitHold(@PathVariable String holdId) {
+        return ResponseEntity.ok(eventService.commitHold(holdId));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+        eventService.releaseHold(holdId);
+        return ResponseEntity.noContent().build();
+    }
 }
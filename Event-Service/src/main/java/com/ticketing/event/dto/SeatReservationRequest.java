@@ -0,0 +1,13 @@
+package com.ticketing.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReservationRequest {
+    private Long eventId;
+    private Integer quantity;
+}
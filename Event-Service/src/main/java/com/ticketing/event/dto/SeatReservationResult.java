@@ -0,0 +1,14 @@
+package com.ticketing.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReservationResult {
+    private Long eventId;
+    private Integer quantity;
+    private boolean reserved;
+}
@@ -0,0 +1,38 @@
+package com.ticketing.event.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Sales the in-memory inventory made that could not be written back to
+ * events.availableTickets, because the row had fewer seats left. Each row
+ * needs an operator to settle the oversold seats.
+ */
+@Entity
+@Table(name = "inventory_reconciliations", indexes = @Index(name = "idx_inventory_reconciliations_event_id", columnList = "eventId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReconciliation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private Integer unflushedQuantity;
+
+    // events.availableTickets when the flush was refused
+    private Integer databaseAvailable;
+
+    @Column(nullable = false)
+    private String status; // OPEN, RESOLVED
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,170 @@
+package com.ticketing.event.inventory;
+
+import com.ticketing.event.cache.EventCatalogCache;
+import com.ticketing.event.entity.Event;
+import com.ticketing.event.entity.InventoryReconciliation;
+import com.ticketing.event.repository.EventRepository;
+import com.ticketing.event.repository.InventoryReconciliationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory seat inventory for Event Service.
+ *
+ * Seats are reserved against striped counters loaded lazily from
+ * events.availableTickets. A reservation becomes a hold that either gets
+ * committed (counted as a sale) or released, explicitly or when its TTL runs
+ * out. Committed sales are written back to the database in the background as
+ * relative decrements, so the request path never takes a row lock.
+ *
+ * The counters are authoritative for this instance only, so this engine is
+ * used only with inventory.mode=memory and a single Event Service replica per
+ * database; the default, inventory.mode=database, sells with conditional
+ * UPDATEs and is safe with any number of replicas. If a flush finds the row
+ * with fewer seats than were sold here, the difference is recorded as an
+ * InventoryReconciliation and the counter is reloaded from the database.
+ */
+@Component
+@Slf4j
+public class InventoryEngine {
+
+    private final EventRepository eventRepository;
+    private final EventCatalogCache catalogCache;
+    private final InventoryReconciliationRepository reconciliationRepository;
+    private final Duration holdTtl;
+    private final int stripes;
+
+    private final Map<Long, StripedInventory> inventories = new ConcurrentHashMap<>();
+    private final Map<String, SeatHold> holds = new ConcurrentHashMap<>();
+
+    public InventoryEngine(EventRepository eventRepository,
+                           EventCatalogCache catalogCache,
+                           InventoryReconciliationRepository reconciliationRepository,
+                           @Value("${inventory.hold-ttl-seconds:300}") long holdTtlSeconds,
+                           @Value("${inventory.stripes:0}") int stripes) {
+        this.eventRepository = eventRepository;
+        this.catalogCache = catalogCache;
+        this.reconciliationRepository = reconciliationRepository;
+        this.holdTtl = Duration.ofSeconds(holdTtlSeconds);
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+
+    public SeatHold reserve(Long eventId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        if (!inventoryFor(eventId).tryTake(quantity)) {
+            return null;
+        }
+        SeatHold hold = new SeatHold(UUID.randomUUID().toString(), eventId, quantity,
+                Instant.now().plus(holdTtl));
+        holds.put(hold.getHoldId(), hold);
+        return hold;
+    }
+
+    public SeatHold commit(String holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        inventoryFor(hold.getEventId()).recordSale(hold.getQuantity());
+        return hold;
+    }
+
+    public void release(String holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold != null) {
+            inventoryFor(hold.getEventId()).put(hold.getQuantity());
+        }
+    }
+
+    /**
+     * Reserve and commit in one step, for callers that sell seats directly.
+     */
+    public boolean sell(Long eventId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        StripedInventory inventory = inventoryFor(eventId);
+        if (!inventory.tryTake(quantity)) {
+            return false;
+        }
+        inventory.recordSale(quantity);
+        return true;
+    }
+
+    public int available(Long eventId) {
+        return inventoryFor(eventId).available();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.expiry-sweep-ms:1000}")
+    public void releaseExpiredHolds() {
+        Instant now = Instant.now();
+        holds.forEach((holdId, hold) -> {
+            if (hold.isExpired(now) && holds.remove(holdId, hold)) {
+                inventoryFor(hold.getEventId()).put(hold.getQuantity());
+                log.debug("Released expired hold {} for event {}", holdId, hold.getEventId());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:1000}")
+    public void flush() {
+        inventories.forEach((eventId, inventory) -> {
+            int sold = inventory.drainPendingFlush();
+            if (sold == 0) {
+                return;
+            }
+            try {
+                if (eventRepository.tryDecrementAvailableTickets(eventId, sold) == 0) {
+                    // The row has fewer seats than this instance sold, so something else sold from it too;
+                    // never take it below zero, and retrying would fail the same way
+                    reconcile(eventId, inventory, sold);
+                }
+                catalogCache.evict(eventId);
+            } catch (Exception e) {
+                inventory.restorePendingFlush(sold);
+                log.error("Failed to flush {} sold tickets for event {}: {}", sold, eventId, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Records the sales the database refused and puts the counter back in line with the row
+    private void reconcile(Long eventId, StripedInventory inventory, int unflushed) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new RuntimeException("Event not found"));
+        int databaseAvailable = event.getAvailableTickets();
+        reconciliationRepository.save(new InventoryReconciliation(null, eventId, unflushed,
+                databaseAvailable, "OPEN", LocalDateTime.now()));
+        int held = holds.values().stream()
+            .filter(hold -> hold.getEventId().equals(eventId))
+            .mapToInt(SeatHold::getQuantity)
+            .sum();
+        inventory.adjustTo(databaseAvailable - held - inventory.pendingFlush());
+        log.error("Could not flush {} sold tickets for event {} ({} available in the database); recorded for reconciliation",
+                unflushed, eventId, databaseAvailable);
+    }
+
+    private StripedInventory inventoryFor(Long eventId) {
+        return inventories.computeIfAbsent(eventId, id -> {
+            Event event = eventRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+            return new StripedInventory(event.getAvailableTickets(), stripes);
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.ticketing.event.inventory;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHold {
+    private String holdId;
+    private Long eventId;
+    private Integer quantity;
+    private Instant expiresAt;
+
+    @JsonIgnore
+    public boolean isExpired(Instant now) {
+        return expiresAt.isBefore(now);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ticketing.event.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Available seat count for one event, spread across several CAS counters so
+ * concurrent buyers mostly hit different cache lines instead of one hot row.
+ */
+class StripedInventory {
+
+    // Each stripe occupies its own 64-byte slot to avoid false sharing
+    private static final int PAD = 16;
+
+    private final int stripes;
+    private final AtomicIntegerArray counts;
+
+    // Committed sales not yet written back to events.availableTickets
+    private final AtomicInteger pendingFlush = new AtomicInteger();
+
+    StripedInventory(int available, int stripes) {
+        this.stripes = stripes;
+        this.counts = new AtomicIntegerArray(stripes * PAD);
+        int share = available / stripes;
+        int remainder = available % stripes;
+        for (int i = 0; i < stripes; i++) {
+            counts.set(i * PAD, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes {@code quantity} seats, borrowing from other stripes when the home
+     * stripe runs short. Anything taken is given back if the total falls short,
+     * so the combined count can never go negative.
+     */
+    boolean tryTake(int quantity) {
+        int taken = take(quantity);
+        if (taken < quantity) {
+            put(taken);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Moves the count to {@code target}, e.g. after re-reading the database.
+     * Takes and puts made meanwhile by other threads are kept on top.
+     */
+    void adjustTo(int target) {
+        int delta = Math.max(target, 0) - available();
+        if (delta > 0) {
+            put(delta);
+        } else if (delta < 0) {
+            take(-delta);
+        }
+    }
+
+    void put(int quantity) {
+        if (quantity > 0) {
+            int slot = ThreadLocalRandom.current().nextInt(stripes) * PAD;
+            counts.addAndGet(slot, quantity);
+        }
+    }
+
+    int available() {
+        int total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += counts.get(i * PAD);
+        }
+        return total;
+    }
+
+    void recordSale(int quantity) {
+        pendingFlush.addAndGet(quantity);
+    }
+
+    int pendingFlush() {
+        return pendingFlush.get();
+    }
+
+    int drainPendingFlush() {
+        return pendingFlush.getAndSet(0);
+    }
+
+    void restorePendingFlush(int quantity) {
+        pendingFlush.addAndGet(quantity);
+    }
+
+    // Takes up to quantity seats, starting at a random stripe; returns how many it got
+    private int take(int quantity) {
+        int home = ThreadLocalRandom.current().nextInt(stripes);
+        int needed = quantity;
+        for (int n = 0; n < stripes && needed > 0; n++) {
+            int slot = ((home + n) % stripes) * PAD;
+            while (needed > 0) {
+                int current = counts.get(slot);
+                if (current == 0) {
+                    break;
+                }
+                int take = Math.min(current, needed);
+                if (counts.compareAndSet(slot, current, current - take)) {
+                    needed -= take;
+                }
+            }
+        }
+        return quantity - needed;
+    }
+}
@@ -1,17 +1,25 @@
 package com.ticketing.event.repository;
 
 import com.ticketing.event.entity.Event;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
     List<Event> findByCategory(String category);
     List<Event> findByActive(Boolean active);
-    
-    @Query("SELECT e FROM Event e WHERE e.title LIKE %?1% OR e.description LIKE %?1%")
-    List<Event> searchEvents(String keyword);
+    List<Event> findByActiveAndIdGreaterThanOrderByIdAsc(Boolean active, Long id, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets - :quantity " +
+           "WHERE e.id = :id AND e.availableTickets >= :quantity")
+    int tryDecrementAvailableTickets(@Param("id") Long id, @Param("quantity") int quantity);
 }
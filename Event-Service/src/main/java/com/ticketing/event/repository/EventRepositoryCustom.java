@@ -0,0 +1,15 @@
+package com.ticketing.event.repository;
+
+import com.ticketing.event.dto.SeatReservationRequest;
+
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Applies every reservation as a conditional decrement in a single JDBC
+     * batch. Each entry succeeds or fails on its own; the returned array holds
+     * one flag per request, in order.
+     */
+    boolean[] tryDecrementAvailableTicketsBatch(List<SeatReservationRequest> reservations);
+}
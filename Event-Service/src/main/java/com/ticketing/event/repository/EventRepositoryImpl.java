@@ -0,0 +1,40 @@
+package com.ticketing.event.repository;
+
+import com.ticketing.event.dto.SeatReservationRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    private static final String CONDITIONAL_DECREMENT_SQL =
+        "UPDATE events SET available_tickets = available_tickets - ? WHERE id = ? AND available_tickets >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public boolean[] tryDecrementAvailableTicketsBatch(List<SeatReservationRequest> reservations) {
+        if (reservations.isEmpty()) {
+            return new boolean[0];
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(CONDITIONAL_DECREMENT_SQL, reservations, reservations.size(),
+            (ps, reservation) -> {
+                ps.setInt(1, reservation.getQuantity());
+                ps.setLong(2, reservation.getEventId());
+                ps.setInt(3, reservation.getQuantity());
+            });
+
+        boolean[] applied = new boolean[reservations.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                applied[i++] = count > 0;
+            }
+        }
+        return applied;
+    }
+}
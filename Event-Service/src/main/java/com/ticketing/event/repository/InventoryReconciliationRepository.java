@@ -0,0 +1,12 @@
+package com.ticketing.event.repository;
+
+import com.ticketing.event.entity.InventoryReconciliation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryReconciliationRepository extends JpaRepository<InventoryReconciliation, Long> {
+    List<InventoryReconciliation> findByStatus(String status);
+}
@@ -0,0 +1,142 @@
+package com.ticketing.event.search;
+
+import com.ticketing.event.entity.Event;
+import com.ticketing.event.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Inverted index over active event titles and descriptions.
+ *
+ * Terms are lowercased alphanumeric runs kept in a sorted dictionary, so each
+ * query token matches every indexed term it is a prefix of. All query tokens
+ * must match; results are ranked by summed term weight, with title hits and
+ * whole-word hits counting more than description and prefix hits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_BONUS = 2;
+
+    private final EventRepository eventRepository;
+
+    // term -> (eventId -> weight)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    // eventId -> terms it was indexed under, so updates can unlink old postings
+    private final Map<Long, Map<String, Integer>> documents = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        List<Event> events = eventRepository.findByActive(true);
+        events.forEach(this::index);
+        log.info("Indexed {} events for search in {} ms", events.size(), System.currentTimeMillis() - start);
+    }
+
+    public synchronized void index(Event event) {
+        remove(event.getId());
+        if (!Boolean.TRUE.equals(event.getActive())) {
+            return;
+        }
+        Map<String, Integer> terms = new HashMap<>();
+        for (String term : tokenize(event.getTitle())) {
+            terms.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(event.getDescription())) {
+            terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        terms.forEach((term, weight) ->
+            postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(event.getId(), weight));
+        documents.put(event.getId(), terms);
+    }
+
+    public synchronized void remove(Long eventId) {
+        Map<String, Integer> terms = documents.remove(eventId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            postings.computeIfPresent(term, (t, docs) -> {
+                docs.remove(eventId);
+                return docs.isEmpty() ? null : docs;
+            });
+        }
+    }
+
+    /**
+     * Returns ids of matching events, best match first, at most {@code limit}.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> tokenScores = new HashMap<>();
+            NavigableMap<String, Map<Long, Integer>> matches =
+                postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            matches.forEach((term, docs) -> {
+                int bonus = term.equals(token) ? EXACT_MATCH_BONUS : 1;
+                docs.forEach((eventId, weight) -> tokenScores.merge(eventId, weight * bonus, Math::max));
+            });
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((eventId, score) -> score + tokenScores.get(eventId));
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+
+        List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return ids;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
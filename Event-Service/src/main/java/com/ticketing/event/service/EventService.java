@@ -1,66 +1,194 @@
 package com.ticketing.event.service;
 
+import com.ticketing.event.cache.EventCatalogCache;
+import com.ticketing.event.dto.CursorPage;
+import com.ticketing.event.dto.SeatReservationRequest;
+import com.ticketing.event.dto.SeatReservationResult;
 import com.ticketing.event.entity.Event;
+import com.ticketing.event.inventory.InventoryEngine;
+import com.ticketing.event.inventory.SeatHold;
 import com.ticketing.event.repository.EventRepository;
+import com.ticketing.event.search.EventSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EventService {
 
     private final EventRepository eventRepository;
+    private final InventoryEngine inventoryEngine;
+    private final EventCatalogCache catalogCache;
+    private final EventSearchIndex searchIndex;
+
+    // "database" (default) uses conditional UPDATEs; "memory" sells from InventoryEngine counters, single replica only
+    @Value("${inventory.mode:database}")
+    private String inventoryMode;
+
+    @Value("${search.max-results:100}")
+    private int searchMaxResults;
 
     public Event createEvent(Event event) {
         event.setCreatedAt(LocalDateTime.now());
         event.setActive(true);
         event.setAvailableTickets(event.getTotalTickets()); // Initialize available tickets
-        return eventRepository.save(event);
+        Event savedEvent = eventRepository.save(event);
+        catalogCache.evict(savedEvent);
+        searchIndex.index(savedEvent);
+        return savedEvent;
     }
 
+    @Cacheable(EventCatalogCache.ACTIVE_EVENTS)
     public List<Event> getAllEvents() {
         return eventRepository.findByActive(true);
     }
 
+    public CursorPage<Event> getEventsPage(String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        Long afterId = CursorPage.decode(cursor);
+        List<Event> rows = eventRepository.findByActiveAndIdGreaterThanOrderByIdAsc(
+            true, afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, Event::getId);
+    }
+
+    @Cacheable(EventCatalogCache.EVENTS_BY_ID)
     public Event getEventById(Long id) {
         return eventRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Event not found"));
     }
 
+    @Cacheable(EventCatalogCache.EVENTS_BY_CATEGORY)
     public List<Event> getEventsByCategory(String category) {
         return eventRepository.findByCategory(category);
     }
 
     public List<Event> searchEvents(String keyword) {
-        return eventRepository.searchEvents(keyword);
+        List<Long> rankedIds = searchIndex.search(keyword, searchMaxResults);
+        if (rankedIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
+        }
+        return eventRepository.findAllById(rankedIds).stream()
+            .sorted(Comparator.comparing(event -> rank.get(event.getId())))
+            .collect(Collectors.toList());
     }
 
     public Event updateEvent(Long id, Event eventDetails) {
         Event event = getEventById(id);
+        String previousCategory = event.getCategory();
         event.setTitle(eventDetails.getTitle());
         event.setDescription(eventDetails.getDescription());
         event.setCategory(eventDetails.getCategory());
         event.setLocation(eventDetails.getLocation());
         event.setPrice(eventDetails.getPrice());
-        return eventRepository.save(event);
+        Event savedEvent = eventRepository.save(event);
+        catalogCache.evictCategory(previousCategory);
+        catalogCache.evict(savedEvent);
+        searchIndex.index(savedEvent);
+        return savedEvent;
     }
 
     public void deleteEvent(Long id) {
         Event event = getEventById(id);
         event.setActive(false);
         eventRepository.save(event);
+        catalogCache.evict(event);
+        searchIndex.remove(id);
     }
 
     public boolean decreaseAvailableTickets(Long eventId, Integer quantity) {
-        Event event = getEventById(eventId);
-        if (event.getAvailableTickets() >= quantity) {
-            event.setAvailableTickets(event.getAvailableTickets() - quantity);
-            eventRepository.save(event);
-            return true;
+        validateQuantity(quantity);
+        if (isDatabaseMode()) {
+            boolean sold = eventRepository.tryDecrementAvailableTickets(eventId, quantity) > 0;
+            if (sold) {
+                catalogCache.evict(eventId);
+            }
+            return sold;
+        }
+        return inventoryEngine.sell(eventId, quantity);
+    }
+
+    public List<SeatReservationResult> reserveSeatsBatch(List<SeatReservationRequest> reservations) {
+        for (SeatReservationRequest reservation : reservations) {
+            if (reservation.getEventId() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Event id is required");
+            }
+            validateQuantity(reservation.getQuantity());
+        }
+
+        List<SeatReservationResult> results = new ArrayList<>(reservations.size());
+        if (isDatabaseMode()) {
+            boolean[] applied = eventRepository.tryDecrementAvailableTicketsBatch(reservations);
+            for (int i = 0; i < reservations.size(); i++) {
+                SeatReservationRequest reservation = reservations.get(i);
+                results.add(new SeatReservationResult(reservation.getEventId(), reservation.getQuantity(), applied[i]));
+                if (applied[i]) {
+                    catalogCache.evict(reservation.getEventId());
+                }
+            }
+        } else {
+            for (SeatReservationRequest reservation : reservations) {
+                boolean sold = inventoryEngine.sell(reservation.getEventId(), reservation.getQuantity());
+                results.add(new SeatReservationResult(reservation.getEventId(), reservation.getQuantity(), sold));
+            }
+        }
+        return results;
+    }
+
+    public int getAvailableTickets(Long eventId) {
+        if (isDatabaseMode()) {
+            return getEventById(eventId).getAvailableTickets();
+        }
+        return inventoryEngine.available(eventId);
+    }
+
+    public SeatHold reserveSeats(Long eventId, Integer quantity) {
+        validateQuantity(quantity);
+        requireMemoryMode();
+        return inventoryEngine.reserve(eventId, quantity);
+    }
+
+    public SeatHold commitHold(String holdId) {
+        requireMemoryMode();
+        return inventoryEngine.commit(holdId);
+    }
+
+    public void releaseHold(String holdId) {
+        requireMemoryMode();
+        inventoryEngine.release(holdId);
+    }
+
+    private boolean isDatabaseMode() {
+        return "database".equalsIgnoreCase(inventoryMode);
+    }
+
+    // Holds live in InventoryEngine's counters, which never see sales made with conditional UPDATEs
+    private void requireMemoryMode() {
+        if (isDatabaseMode()) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                "Seat holds are not available with inventory.mode=database");
+        }
+    }
+
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be greater than 0");
         }
-        return false;
     }
 }
@@ -0,0 +1,169 @@
+package com.ticketing.event.inventory;
+
+import com.ticketing.event.cache.EventCatalogCache;
+import com.ticketing.event.entity.Event;
+import com.ticketing.event.entity.InventoryReconciliation;
+import com.ticketing.event.repository.EventRepository;
+import com.ticketing.event.repository.InventoryReconciliationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryEngineTest {
+
+    private static final Long EVENT_ID = 1L;
+
+    private EventRepository eventRepository;
+    private EventCatalogCache catalogCache;
+    private InventoryReconciliationRepository reconciliationRepository;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        catalogCache = mock(EventCatalogCache.class);
+        reconciliationRepository = mock(InventoryReconciliationRepository.class);
+        givenDatabaseAvailable(10);
+    }
+
+    @Test
+    void reserveTakesSeatsUntilSoldOut() {
+        InventoryEngine engine = engine(300);
+
+        SeatHold hold = engine.reserve(EVENT_ID, 6);
+
+        assertNotNull(hold);
+        assertEquals(4, engine.available(EVENT_ID));
+        assertNull(engine.reserve(EVENT_ID, 5));
+        assertEquals(4, engine.available(EVENT_ID));
+    }
+
+    @Test
+    void reserveRejectsNonPositiveQuantity() {
+        InventoryEngine engine = engine(300);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.reserve(EVENT_ID, 0));
+    }
+
+    @Test
+    void releaseReturnsSeats() {
+        InventoryEngine engine = engine(300);
+        SeatHold hold = engine.reserve(EVENT_ID, 3);
+
+        engine.release(hold.getHoldId());
+        engine.release(hold.getHoldId());
+
+        assertEquals(10, engine.available(EVENT_ID));
+    }
+
+    @Test
+    void commitKeepsSeatsAndFlushesThem() {
+        InventoryEngine engine = engine(300);
+        SeatHold hold = engine.reserve(EVENT_ID, 3);
+        when(eventRepository.tryDecrementAvailableTickets(EVENT_ID, 3)).thenReturn(1);
+
+        engine.commit(hold.getHoldId());
+        engine.flush();
+
+        assertEquals(7, engine.available(EVENT_ID));
+        verify(eventRepository).tryDecrementAvailableTickets(EVENT_ID, 3);
+        verify(catalogCache).evict(EVENT_ID);
+        verify(reconciliationRepository, never()).save(any());
+    }
+
+    @Test
+    void commitFailsOnceHoldIsGone() {
+        InventoryEngine engine = engine(300);
+        SeatHold hold = engine.reserve(EVENT_ID, 3);
+        engine.release(hold.getHoldId());
+
+        assertThrows(RuntimeException.class, () -> engine.commit(hold.getHoldId()));
+    }
+
+    @Test
+    void expiredHoldsAreReleased() {
+        InventoryEngine engine = engine(-1);
+        SeatHold hold = engine.reserve(EVENT_ID, 4);
+
+        engine.releaseExpiredHolds();
+
+        assertEquals(10, engine.available(EVENT_ID));
+        assertThrows(RuntimeException.class, () -> engine.commit(hold.getHoldId()));
+    }
+
+    @Test
+    void flushWithNothingSoldSkipsDatabase() {
+        InventoryEngine engine = engine(300);
+        engine.reserve(EVENT_ID, 2);
+
+        engine.flush();
+
+        verify(eventRepository, never()).tryDecrementAvailableTickets(anyLong(), anyInt());
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        InventoryEngine engine = engine(300);
+        engine.sell(EVENT_ID, 2);
+        when(eventRepository.tryDecrementAvailableTickets(EVENT_ID, 2))
+            .thenThrow(new RuntimeException("connection reset"))
+            .thenReturn(1);
+
+        engine.flush();
+        engine.flush();
+
+        verify(eventRepository, times(2)).tryDecrementAvailableTickets(EVENT_ID, 2);
+        verify(reconciliationRepository, never()).save(any());
+    }
+
+    @Test
+    void refusedFlushIsRecordedAndCounterReloaded() {
+        InventoryEngine engine = engine(300);
+        assertTrue(engine.sell(EVENT_ID, 5));
+        engine.reserve(EVENT_ID, 1);
+        // Another writer sold from the row meanwhile, leaving only 3
+        when(eventRepository.tryDecrementAvailableTickets(EVENT_ID, 5)).thenReturn(0);
+        givenDatabaseAvailable(3);
+
+        engine.flush();
+
+        ArgumentCaptor<InventoryReconciliation> captor = ArgumentCaptor.forClass(InventoryReconciliation.class);
+        verify(reconciliationRepository).save(captor.capture());
+        assertEquals(EVENT_ID, captor.getValue().getEventId());
+        assertEquals(5, captor.getValue().getUnflushedQuantity());
+        assertEquals(3, captor.getValue().getDatabaseAvailable());
+        assertEquals("OPEN", captor.getValue().getStatus());
+        // Three in the row, one of them still held here
+        assertEquals(2, engine.available(EVENT_ID));
+        verify(catalogCache).evict(EVENT_ID);
+
+        engine.flush();
+        verify(eventRepository, times(1)).tryDecrementAvailableTickets(anyLong(), anyInt());
+    }
+
+    private InventoryEngine engine(long holdTtlSeconds) {
+        return new InventoryEngine(eventRepository, catalogCache, reconciliationRepository, holdTtlSeconds, 4);
+    }
+
+    private void givenDatabaseAvailable(int available) {
+        Event event = new Event();
+        event.setId(EVENT_ID);
+        event.setAvailableTickets(available);
+        when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+    }
+}
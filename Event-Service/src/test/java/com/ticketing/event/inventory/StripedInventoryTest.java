@@ -0,0 +1,70 @@
+package com.ticketing.event.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedInventoryTest {
+
+    @Test
+    void spreadsSeatsAcrossStripes() {
+        StripedInventory inventory = new StripedInventory(10, 4);
+
+        assertEquals(10, inventory.available());
+    }
+
+    @Test
+    void takeBorrowsFromOtherStripes() {
+        StripedInventory inventory = new StripedInventory(10, 4);
+
+        assertTrue(inventory.tryTake(7));
+        assertEquals(3, inventory.available());
+    }
+
+    @Test
+    void failedTakeGivesEverythingBack() {
+        StripedInventory inventory = new StripedInventory(5, 4);
+
+        assertFalse(inventory.tryTake(6));
+        assertEquals(5, inventory.available());
+    }
+
+    @Test
+    void putReturnsSeats() {
+        StripedInventory inventory = new StripedInventory(5, 2);
+        inventory.tryTake(5);
+
+        inventory.put(2);
+
+        assertEquals(2, inventory.available());
+    }
+
+    @Test
+    void pendingFlushDrainsAndRestores() {
+        StripedInventory inventory = new StripedInventory(5, 2);
+        inventory.recordSale(2);
+        inventory.recordSale(1);
+
+        assertEquals(3, inventory.drainPendingFlush());
+        assertEquals(0, inventory.pendingFlush());
+
+        inventory.restorePendingFlush(3);
+        assertEquals(3, inventory.pendingFlush());
+    }
+
+    @Test
+    void adjustToMovesCountBothWays() {
+        StripedInventory inventory = new StripedInventory(10, 4);
+
+        inventory.adjustTo(4);
+        assertEquals(4, inventory.available());
+
+        inventory.adjustTo(9);
+        assertEquals(9, inventory.available());
+
+        inventory.adjustTo(-3);
+        assertEquals(0, inventory.available());
+    }
+}
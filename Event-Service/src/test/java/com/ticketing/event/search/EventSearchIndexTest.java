@@ -0,0 +1,133 @@
+package com.ticketing.event.search;
+
+import com.ticketing.event.entity.Event;
+import com.ticketing.event.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventSearchIndexTest {
+
+    private EventRepository eventRepository;
+    private EventSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        index = new EventSearchIndex(eventRepository);
+    }
+
+    @Test
+    void titleHitsRankAboveDescriptionHits() {
+        index.index(event(1L, "City Marathon", "Jazz band at the finish line"));
+        index.index(event(2L, "Jazz Night", "Live music downtown"));
+
+        assertEquals(List.of(2L, 1L), index.search("jazz", 10));
+    }
+
+    @Test
+    void wholeWordHitsRankAbovePrefixHits() {
+        index.index(event(1L, "Rockabilly Revival", "Dance night"));
+        index.index(event(2L, "Rock Festival", "Dance night"));
+
+        assertEquals(List.of(2L, 1L), index.search("rock", 10));
+    }
+
+    @Test
+    void matchesTermsByPrefix() {
+        index.index(event(1L, "Symphony Orchestra", "Classical evening"));
+
+        assertEquals(List.of(1L), index.search("symph", 10));
+        assertEquals(List.of(1L), index.search("CLASS", 10));
+        assertTrue(index.search("phony", 10).isEmpty());
+    }
+
+    @Test
+    void everyQueryTokenMustMatch() {
+        index.index(event(1L, "Jazz Night", "Live music"));
+        index.index(event(2L, "Jazz Brunch", "Sunday morning"));
+
+        assertEquals(List.of(1L), index.search("jazz live", 10));
+        assertTrue(index.search("jazz opera", 10).isEmpty());
+    }
+
+    @Test
+    void scoresAddUpAcrossTokens() {
+        index.index(event(1L, "Jazz Night", "Blues"));
+        index.index(event(2L, "Blues Night", "Jazz"));
+        index.index(event(3L, "Jazz Blues", "Night"));
+
+        assertEquals(List.of(3L, 1L, 2L), index.search("jazz blues", 10));
+    }
+
+    @Test
+    void tiesAreOrderedById() {
+        index.index(event(5L, "Food Fair", "Street food"));
+        index.index(event(3L, "Food Fair", "Street food"));
+
+        assertEquals(List.of(3L, 5L), index.search("food", 10));
+    }
+
+    @Test
+    void limitsResults() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(event(id, "Comedy Club", "Stand-up"));
+        }
+
+        assertEquals(List.of(1L, 2L), index.search("comedy", 2));
+    }
+
+    @Test
+    void blankQueryMatchesNothing() {
+        index.index(event(1L, "Comedy Club", "Stand-up"));
+
+        assertTrue(index.search("  -- ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+    }
+
+    @Test
+    void reindexingReplacesOldTerms() {
+        index.index(event(1L, "Jazz Night", "Live music"));
+        index.index(event(1L, "Opera Gala", "Live music"));
+
+        assertTrue(index.search("jazz", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("opera", 10));
+    }
+
+    @Test
+    void inactiveAndRemovedEventsAreNotFound() {
+        Event inactive = event(1L, "Jazz Night", "Live music");
+        inactive.setActive(false);
+        index.index(inactive);
+        index.index(event(2L, "Jazz Brunch", "Sunday"));
+        index.remove(2L);
+
+        assertTrue(index.search("jazz", 10).isEmpty());
+    }
+
+    @Test
+    void buildIndexesActiveEvents() {
+        when(eventRepository.findByActive(true)).thenReturn(List.of(
+            event(1L, "Jazz Night", "Live music"),
+            event(2L, "Rock Festival", "Outdoor stage")));
+
+        index.build();
+
+        assertEquals(List.of(2L), index.search("stage", 10));
+    }
+
+    private static Event event(Long id, String title, String description) {
+        Event event = new Event();
+        event.setId(id);
+        event.setTitle(title);
+        event.setDescription(description);
+        event.setActive(true);
+        return event;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ticketing.notification.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class EmailDispatchConfig {
+
+    /**
+     * Worker pool for SMTP sends. Fixed size with a bounded queue; the dispatcher
+     * only claims as many batches as there is room for, so nothing is rejected.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emailDispatchExecutor(
+            @Value("${notification.email.workers:4}") int workers,
+            @Value("${notification.email.queue-capacity:8}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("email-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,153 @@
+package com.ticketing.notification.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RabbitMQ Configuration for Notification Service
+ * Own queues bound to payment_exchange and ticket_exchange, so notifications
+ * get a copy of each event without competing with Ticket Service consumers.
+ * Rejected batches are dead-lettered to a delay queue per event queue and
+ * come back once its TTL expires.
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String PAYMENT_EVENTS_QUEUE = "notification.payment_queue";
+    public static final String TICKET_EVENTS_QUEUE = "notification.ticket_queue";
+
+    public static String retryQueueName(String queue) {
+        return queue + ".retry";
+    }
+
+    @Value("${rabbitmq.payment.exchange}")
+    private String paymentExchangeName;
+
+    @Value("${rabbitmq.payment.routing-key}")
+    private String paymentRoutingKey;
+
+    @Value("${rabbitmq.ticket.exchange}")
+    private String ticketExchangeName;
+
+    @Value("${rabbitmq.ticket.routing-key}")
+    private String ticketRoutingKey;
+
+    @Value("${rabbitmq.listener.events.retry-delay-ms:30000}")
+    private int retryDelayMs;
+
+    @Bean
+    public Queue paymentEventsQueue() {
+        return eventsQueue(PAYMENT_EVENTS_QUEUE);
+    }
+
+    @Bean
+    public Queue paymentEventsRetryQueue() {
+        return retryQueue(PAYMENT_EVENTS_QUEUE);
+    }
+
+    @Bean
+    public TopicExchange paymentExchange() {
+        return new TopicExchange(paymentExchangeName);
+    }
+
+    @Bean
+    public Binding paymentEventsBinding() {
+        return BindingBuilder
+                .bind(paymentEventsQueue())
+                .to(paymentExchange())
+                .with(paymentRoutingKey);
+    }
+
+    @Bean
+    public Queue ticketEventsQueue() {
+        return eventsQueue(TICKET_EVENTS_QUEUE);
+    }
+
+    @Bean
+    public Queue ticketEventsRetryQueue() {
+        return retryQueue(TICKET_EVENTS_QUEUE);
+    }
+
+    @Bean
+    public TopicExchange ticketExchange() {
+        return new TopicExchange(ticketExchangeName);
+    }
+
+    @Bean
+    public Binding ticketEventsBinding() {
+        return BindingBuilder
+                .bind(ticketEventsQueue())
+                .to(ticketExchange())
+                .with(ticketRoutingKey);
+    }
+
+    private Queue eventsQueue(String name) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(retryQueueName(name))
+                .build();
+    }
+
+    // No consumers; messages sit out the TTL and are dead-lettered back to the events queue
+    private Queue retryQueue(String name) {
+        return QueueBuilder.durable(retryQueueName(name))
+                .ttl(retryDelayMs)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(name)
+                .build();
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        // Publishers own the message classes; ignore fields this service does not use
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(objectMapper);
+        // The __TypeId__ header names the publisher's class; bind to the listener's parameter type instead
+        converter.setAlwaysConvertToInferredType(true);
+        return converter;
+    }
+
+    /**
+     * Listener container for event queues: batch delivery so one listener call
+     * renders and inserts many notifications in one transaction. Acks go out
+     * after the listener returns, i.e. after commit.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory eventListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${rabbitmq.listener.events.concurrency:2}") int concurrency,
+            @Value("${rabbitmq.listener.events.max-concurrency:8}") int maxConcurrency,
+            @Value("${rabbitmq.listener.events.prefetch:250}") int prefetch,
+            @Value("${rabbitmq.listener.events.batch-size:100}") int batchSize,
+            @Value("${rabbitmq.listener.events.receive-timeout-ms:200}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter());
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setDeBatchingEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        // Never requeue in place: a rejected batch goes to the delay queue
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ticketing.notification.controller;
 
+import com.ticketing.notification.entity.EmailDelivery;
 import com.ticketing.notification.entity.Notification;
 import com.ticketing.notification.service.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +37,11 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getNotificationById(id));
     }
 
+    @GetMapping("/{id}/email")
+    public ResponseEntity<List<EmailDelivery>> getEmailDeliveries(@PathVariable Long id) {
+        return ResponseEntity.ok(notificationService.getEmailDeliveries(id));
+    }
+
     @PutMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
         notificationService.markAsRead(id);
@@ -0,0 +1,27 @@
+package com.ticketing.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment event from payment_exchange; the fields of Payment Service's
+ * PaymentMessage that notifications use
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentEvent {
+    private Long bookingId;
+    private Long userId;
+    private Long eventId;
+    private String status;
+    private String transactionId;
+    private Double amount;
+    private String currency;
+    private LocalDateTime timestamp;
+    private String message;
+    private String customerEmail;
+}
@@ -0,0 +1,24 @@
+package com.ticketing.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ticket issued event from ticket_exchange
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketIssuedEvent {
+    private Long ticketId;
+    private String ticketNumber;
+    private Long registrationId;
+    private Long eventId;
+    private Long userId;
+    private Double price;
+    private LocalDateTime issuedAt;
+    private String customerEmail;
+}
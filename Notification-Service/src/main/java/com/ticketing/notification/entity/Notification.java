@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "uk_notifications_source_key", columnList = "sourceKey", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,4 +37,7 @@ public class Notification {
     private LocalDateTime createdAt;
 
     private String recipientEmail;
+
+    // Identifies the event a notification was created from, so redelivered events are skipped
+    private String sourceKey;
 }
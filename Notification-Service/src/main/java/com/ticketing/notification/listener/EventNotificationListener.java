@@ -0,0 +1,160 @@
+package com.ticketing.notification.listener;
+
+import com.ticketing.notification.config.RabbitMQConfig;
+import com.ticketing.notification.dto.PaymentEvent;
+import com.ticketing.notification.dto.TicketIssuedEvent;
+import com.ticketing.notification.entity.Notification;
+import com.ticketing.notification.service.NotificationService;
+import com.ticketing.notification.template.NotificationTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Turns payment and ticket events into notifications.
+ * Events arrive in batches; each batch is rendered and inserted in one
+ * transaction and acknowledged after it commits. If a batch fails because of
+ * its content, its events are retried one at a time and any that still fail
+ * that way are logged and dropped, so one bad event never holds up the others.
+ * Any other failure (database down, timeouts) is rethrown so the batch is
+ * rejected and redelivered through the delay queue; source keys make the
+ * redelivery idempotent.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventNotificationListener {
+
+    private final NotificationService notificationService;
+    private final MessageConverter messageConverter;
+
+    @RabbitListener(queues = RabbitMQConfig.PAYMENT_EVENTS_QUEUE, containerFactory = "eventListenerContainerFactory")
+    public void handlePaymentEvents(List<Message> messages) {
+        ingest(convert(messages, PaymentEvent.class, "payment"), this::toNotification, "payment");
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.TICKET_EVENTS_QUEUE, containerFactory = "eventListenerContainerFactory")
+    public void handleTicketEvents(List<Message> messages) {
+        ingest(convert(messages, TicketIssuedEvent.class, "ticket"), this::toNotification, "ticket");
+    }
+
+    // Converted here rather than by the container, so one unreadable message is dropped alone
+    private <E> List<E> convert(List<Message> messages, Class<E> type, String kind) {
+        List<E> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            message.getMessageProperties().setInferredArgumentType(type);
+            try {
+                events.add(type.cast(messageConverter.fromMessage(message)));
+            } catch (MessageConversionException | ClassCastException e) {
+                log.error("Dropping unreadable {} message {}: {}", kind,
+                    message.getMessageProperties().getMessageId(), e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    private <E> void ingest(List<E> events, Function<E, Notification> mapper, String kind) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            int created = notificationService.createNotifications(render(events, mapper)).size();
+            log.info("Created {} notifications from {} {} events", created, events.size(), kind);
+        } catch (RuntimeException e) {
+            if (!isPoison(e)) {
+                throw e;
+            }
+            log.warn("Notification batch for {} {} events failed, retrying one at a time: {}",
+                events.size(), kind, e.getMessage());
+            for (E event : events) {
+                try {
+                    notificationService.createNotifications(render(List.of(event), mapper));
+                } catch (RuntimeException eventFailure) {
+                    if (!isPoison(eventFailure)) {
+                        throw eventFailure;
+                    }
+                    log.error("Dropping {} event {}: {}", kind, event, eventFailure.getMessage());
+                }
+            }
+        }
+    }
+
+    // Failures caused by the event itself, which a redelivery would only repeat
+    private static boolean isPoison(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DataIntegrityViolationException
+                    || t instanceof MessageConversionException
+                    || t instanceof IllegalArgumentException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <E> List<Notification> render(List<E> events, Function<E, Notification> mapper) {
+        List<Notification> notifications = new ArrayList<>(events.size());
+        for (E event : events) {
+            Notification notification = mapper.apply(event);
+            if (notification != null) {
+                notifications.add(notification);
+            }
+        }
+        return notifications;
+    }
+
+    private Notification toNotification(PaymentEvent event) {
+        NotificationTemplate template;
+        if ("SUCCESS".equals(event.getStatus())) {
+            template = NotificationTemplate.PAYMENT_SUCCESS;
+        } else if ("FAILED".equals(event.getStatus())) {
+            template = NotificationTemplate.PAYMENT_FAILED;
+        } else {
+            return null;
+        }
+        if (event.getUserId() == null) {
+            // Nobody to address it to
+            return null;
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("bookingId", event.getBookingId());
+        values.put("amount", event.getAmount() != null ? String.format("%.2f", event.getAmount()) : null);
+        values.put("currency", event.getCurrency() != null ? event.getCurrency().toUpperCase() : null);
+        return build(template, values, event.getUserId(), event.getCustomerEmail(),
+            event.getTransactionId() != null ? "payment:" + event.getTransactionId() + ":" + event.getStatus() : null);
+    }
+
+    private Notification toNotification(TicketIssuedEvent event) {
+        if (event.getUserId() == null || event.getTicketId() == null) {
+            return null;
+        }
+        Map<String, Object> values = new HashMap<>();
+        values.put("ticketNumber", event.getTicketNumber());
+        values.put("eventId", event.getEventId());
+        return build(NotificationTemplate.TICKET_ISSUED, values, event.getUserId(), event.getCustomerEmail(),
+            "ticket:" + event.getTicketId());
+    }
+
+    private Notification build(NotificationTemplate template, Map<String, Object> values,
+                               Long userId, String recipientEmail, String sourceKey) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setType(template.getType());
+        notification.setTitle(template.getTitle());
+        notification.setMessage(template.renderMessage(values));
+        notification.setRecipientEmail(recipientEmail != null && !recipientEmail.isEmpty() ? recipientEmail : null);
+        notification.setSourceKey(sourceKey);
+        return notification;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ticketing.notification.repository;
+
+import com.ticketing.notification.entity.EmailDelivery;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailDeliveryRepository extends JpaRepository<EmailDelivery, Long> {
+    List<EmailDelivery> findByNotificationId(Long notificationId);
+
+    // lock.timeout -2 makes Hibernate emit SKIP LOCKED, so dispatchers on other instances take other rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT d FROM EmailDelivery d WHERE d.status = 'PENDING' AND d.nextAttemptAt <= :now ORDER BY d.id")
+    List<EmailDelivery> lockDueDeliveries(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -2,12 +2,18 @@ package com.ticketing.notification.repository;
 
 import com.ticketing.notification.entity.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserId(Long userId);
     List<Notification> findByUserIdAndStatus(Long userId, String status);
+
+    @Query("SELECT n.sourceKey FROM Notification n WHERE n.sourceKey IN :sourceKeys")
+    List<String> findExistingSourceKeys(@Param("sourceKeys") Collection<String> sourceKeys);
 }
@@ -0,0 +1,190 @@
+package com.ticketing.notification.service;
+
+import com.ticketing.notification.entity.EmailDelivery;
+import com.ticketing.notification.repository.EmailDeliveryRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Sends queued email deliveries.
+ *
+ * Each poll claims due PENDING deliveries for the idle workers (leasing them
+ * so other instances skip them) and hands them to the worker pool in batches. A worker keeps its
+ * SMTP connection open between batches and sends a whole batch over it.
+ * Failed sends are retried with exponential backoff until max-attempts, then
+ * marked FAILED.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDispatcher {
+
+    private final EmailDeliveryRepository emailDeliveryRepository;
+    private final JavaMailSenderImpl mailSender;
+    private final ThreadPoolTaskExecutor emailDispatchExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    // One SMTP connection per worker thread, reused across batches
+    private final ThreadLocal<Transport> workerTransport = new ThreadLocal<>();
+    private final Set<Transport> openTransports = ConcurrentHashMap.newKeySet();
+
+    @Value("${notification.email.batch-size:20}")
+    private int batchSize;
+
+    @Value("${notification.email.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.email.initial-backoff-ms:2000}")
+    private long initialBackoffMs;
+
+    @Value("${notification.email.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${notification.email.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${notification.email.from:${spring.mail.username:}}")
+    private String from;
+
+    @Scheduled(fixedDelayString = "${notification.email.poll-interval-ms:500}")
+    public void dispatch() {
+        // Claim only what idle workers start on now; a batch waiting in the queue would burn its lease and an attempt
+        ThreadPoolExecutor pool = emailDispatchExecutor.getThreadPoolExecutor();
+        int idleWorkers = pool.getMaximumPoolSize() - pool.getActiveCount() - pool.getQueue().size();
+        if (idleWorkers <= 0) {
+            return;
+        }
+
+        List<EmailDelivery> due = claimDue(idleWorkers * batchSize);
+        for (int start = 0; start < due.size(); start += batchSize) {
+            List<EmailDelivery> batch = due.subList(start, Math.min(start + batchSize, due.size()));
+            try {
+                emailDispatchExecutor.execute(() -> sendBatch(batch));
+            } catch (TaskRejectedException e) {
+                // Pool filled up meanwhile; the batch is picked up again when its lease ends
+                log.warn("Email dispatch pool full, deferring {} deliveries", batch.size());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeConnections() {
+        openTransports.forEach(this::close);
+    }
+
+    private List<EmailDelivery> claimDue(int limit) {
+        return transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailDelivery> due = emailDeliveryRepository.lockDueDeliveries(now, PageRequest.of(0, limit));
+            for (EmailDelivery delivery : due) {
+                delivery.setAttempts(delivery.getAttempts() + 1);
+                delivery.setNextAttemptAt(now.plus(Duration.ofMillis(leaseMs)));
+            }
+            return emailDeliveryRepository.saveAll(due);
+        });
+    }
+
+    private void sendBatch(List<EmailDelivery> batch) {
+        Transport transport = null;
+        int sent = 0;
+        for (EmailDelivery delivery : batch) {
+            try {
+                if (transport == null) {
+                    transport = connectedTransport();
+                }
+                MimeMessage message = toMimeMessage(delivery);
+                transport.sendMessage(message, message.getAllRecipients());
+                delivery.setStatus("SENT");
+                delivery.setSentAt(LocalDateTime.now());
+                delivery.setLastError(null);
+                sent++;
+            } catch (Exception e) {
+                failed(delivery, e);
+                transport = null; // Check the connection again before the next message
+            }
+        }
+        emailDeliveryRepository.saveAll(batch);
+        log.info("Email batch done: {} sent, {} failed", sent, batch.size() - sent);
+    }
+
+    private Transport connectedTransport() throws MessagingException {
+        Transport transport = workerTransport.get();
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        if (transport != null) {
+            close(transport);
+        }
+        transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            password = null;
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        workerTransport.set(transport);
+        openTransports.add(transport);
+        return transport;
+    }
+
+    private MimeMessage toMimeMessage(EmailDelivery delivery) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        if (from != null && !from.isEmpty()) {
+            helper.setFrom(from);
+        }
+        helper.setTo(delivery.getRecipient());
+        helper.setSubject(delivery.getSubject());
+        helper.setText(delivery.getBody());
+        message.saveChanges();
+        return message;
+    }
+
+    private void failed(EmailDelivery delivery, Exception e) {
+        delivery.setLastError(e.getMessage());
+        if (delivery.getAttempts() >= maxAttempts) {
+            delivery.setStatus("FAILED");
+            log.error("Email delivery {} to {} failed permanently after {} attempts: {}",
+                delivery.getId(), delivery.getRecipient(), delivery.getAttempts(), e.getMessage());
+        } else {
+            delivery.setNextAttemptAt(LocalDateTime.now().plus(backoff(delivery.getAttempts())));
+            log.warn("Email delivery {} to {} failed (attempt {}): {}",
+                delivery.getId(), delivery.getRecipient(), delivery.getAttempts(), e.getMessage());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+
+    private void close(Transport transport) {
+        openTransports.remove(transport);
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+}
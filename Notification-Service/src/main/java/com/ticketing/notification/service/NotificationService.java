@@ -1,35 +1,83 @@
 package com.ticketing.notification.service;
 
+import com.ticketing.notification.entity.EmailDelivery;
 import com.ticketing.notification.entity.Notification;
+import com.ticketing.notification.repository.EmailDeliveryRepository;
 import com.ticketing.notification.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final JavaMailSender mailSender;
+    private final EmailDeliveryRepository emailDeliveryRepository;
 
+    @Transactional
     public Notification createNotification(Notification notification) {
         notification.setCreatedAt(LocalDateTime.now());
         notification.setStatus("UNREAD");
         Notification savedNotification = notificationRepository.save(notification);
 
-        // Send email notification
+        // Queue email notification; EmailDispatcher sends it
         if (notification.getRecipientEmail() != null) {
-            sendEmailNotification(notification);
+            emailDeliveryRepository.save(toEmailDelivery(savedNotification));
         }
 
         return savedNotification;
     }
 
+    /**
+     * Bulk form of {@link #createNotification} for event ingestion: notifications
+     * whose source key is already stored, or repeated within the batch, are
+     * skipped; the rest and their email deliveries go in with two saveAll calls.
+     */
+    @Transactional
+    public List<Notification> createNotifications(List<Notification> notifications) {
+        Set<String> sourceKeys = new HashSet<>();
+        for (Notification notification : notifications) {
+            if (notification.getSourceKey() != null) {
+                sourceKeys.add(notification.getSourceKey());
+            }
+        }
+        Set<String> seen = sourceKeys.isEmpty()
+            ? new HashSet<>()
+            : new HashSet<>(notificationRepository.findExistingSourceKeys(sourceKeys));
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<Notification> fresh = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            if (notification.getSourceKey() == null || seen.add(notification.getSourceKey())) {
+                notification.setCreatedAt(createdAt);
+                notification.setStatus("UNREAD");
+                fresh.add(notification);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return fresh;
+        }
+
+        List<Notification> saved = notificationRepository.saveAll(fresh);
+        List<EmailDelivery> deliveries = new ArrayList<>();
+        for (Notification notification : saved) {
+            if (notification.getRecipientEmail() != null) {
+                deliveries.add(toEmailDelivery(notification));
+            }
+        }
+        if (!deliveries.isEmpty()) {
+            emailDeliveryRepository.saveAll(deliveries);
+        }
+        return saved;
+    }
+
     public List<Notification> getUserNotifications(Long userId) {
         return notificationRepository.findByUserId(userId);
     }
@@ -49,15 +97,19 @@ public class NotificationService {
         notificationRepository.save(notification);
     }
 
-    private void sendEmailNotification(Notification notification) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(notification.getRecipientEmail());
-            message.setSubject(notification.getTitle());
-            message.setText(notification.getMessage());
-            mailSender.send(message);
-        } catch (Exception e) {
-            System.out.println("Error sending email: " + e.getMessage());
-        }
+    public List<EmailDelivery> getEmailDeliveries(Long notificationId) {
+        return emailDeliveryRepository.findByNotificationId(notificationId);
+    }
+
+    private EmailDelivery toEmailDelivery(Notification notification) {
+        EmailDelivery delivery = new EmailDelivery();
+        delivery.setNotificationId(notification.getId());
+        delivery.setRecipient(notification.getRecipientEmail());
+        delivery.setSubject(notification.getTitle());
+        delivery.setBody(notification.getMessage());
+        delivery.setStatus("PENDING");
+        delivery.setCreatedAt(notification.getCreatedAt());
+        delivery.setNextAttemptAt(notification.getCreatedAt());
+        return delivery;
     }
 }
@@ -0,0 +1,81 @@
+package com.ticketing.notification.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notification texts for events. Placeholders are written {name}; each template
+ * is split into literal and placeholder parts once, so rendering is a single
+ * pass over the parts.
+ */
+public enum NotificationTemplate {
+
+    PAYMENT_SUCCESS("PAYMENT",
+        "Payment received",
+        "We received your payment of {amount} {currency} for booking #{bookingId}. Your ticket is being issued."),
+
+    PAYMENT_FAILED("PAYMENT",
+        "Payment failed",
+        "Your payment for booking #{bookingId} could not be completed. No money was taken; please try again."),
+
+    TICKET_ISSUED("TICKET",
+        "Your ticket is ready",
+        "Ticket {ticketNumber} for event #{eventId} has been issued. Show its QR code at the entrance.");
+
+    private final String type;
+    private final String title;
+    private final List<Part> messageParts;
+
+    NotificationTemplate(String type, String title, String message) {
+        this.type = type;
+        this.title = title;
+        this.messageParts = parse(message);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Fill in the message; a missing value renders as an empty string
+     */
+    public String renderMessage(Map<String, ?> values) {
+        StringBuilder message = new StringBuilder(128);
+        for (Part part : messageParts) {
+            if (part.placeholder) {
+                Object value = values.get(part.text);
+                message.append(value != null ? value : "");
+            } else {
+                message.append(part.text);
+            }
+        }
+        return message.toString();
+    }
+
+    private static List<Part> parse(String template) {
+        List<Part> parts = new ArrayList<>();
+        int position = 0;
+        while (position < template.length()) {
+            int open = template.indexOf('{', position);
+            int close = open < 0 ? -1 : template.indexOf('}', open);
+            if (close < 0) {
+                parts.add(new Part(template.substring(position), false));
+                break;
+            }
+            if (open > position) {
+                parts.add(new Part(template.substring(position, open), false));
+            }
+            parts.add(new Part(template.substring(open + 1, close), true));
+            position = close + 1;
+        }
+        return List.copyOf(parts);
+    }
+
+    private record Part(String text, boolean placeholder) {
+    }
+}
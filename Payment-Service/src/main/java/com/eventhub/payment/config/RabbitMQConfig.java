@@ -2,9 +2,11 @@ package com.eventhub.payment.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -19,6 +21,7 @@ import org.springframework.context.annotation.Configuration;
  * Configures exchange, queue, and bindings for payment messaging
  */
 @Configuration
+@Slf4j
 public class RabbitMQConfig {
 
     @Value("${rabbitmq.payment.exchange}")
@@ -30,6 +33,12 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.payment.routing-key}")
     private String routingKey;
 
+    @Value("${rabbitmq.payment.dead-letter-exchange:payment_dlx}")
+    private String deadLetterExchange;
+
+    @Value("${rabbitmq.payment.dead-letter-routing-key:parking-lot}")
+    private String deadLetterRoutingKey;
+
     /**
      * Topic Exchange for payment messages
      */
@@ -40,10 +49,15 @@ public class RabbitMQConfig {
 
     /**
      * Queue for payment messages
+     * Declared with the same dead-letter arguments as Ticket Service; RabbitMQ
+     * refuses a redeclaration whose arguments differ.
      */
     @Bean
     public Queue paymentQueue() {
-        return new Queue(queueName, true); // durable queue
+        return QueueBuilder.durable(queueName)
+                .deadLetterExchange(deadLetterExchange)
+                .deadLetterRoutingKey(deadLetterRoutingKey)
+                .build();
     }
 
     /**
@@ -70,11 +84,16 @@ public class RabbitMQConfig {
 
     /**
      * RabbitTemplate with JSON message converter
+     * Mandatory publishing, so an unroutable message comes back as a return
+     * on its correlation instead of being dropped by the exchange
      */
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMandatory(true);
+        rabbitTemplate.setReturnsCallback(returned -> log.warn("Payment message returned by broker: {} {}",
+                returned.getReplyCode(), returned.getReplyText()));
         return rabbitTemplate;
     }
 }
@@ -0,0 +1,78 @@
+package com.eventhub.payment.controller;
+
+import com.eventhub.payment.dto.PaymentStatusUpdateRequest;
+import com.eventhub.payment.service.PaymentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Payment Admin Controller
+ * Operator endpoints for reconciliation. Every call needs the X-Admin-Key
+ * header to match payment.admin.api-key; while no key is configured the
+ * endpoints are disabled.
+ */
+@RestController
+@RequestMapping("/api/payments/admin")
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentAdminController {
+
+    public static final String ADMIN_KEY_HEADER = "X-Admin-Key";
+
+    private final PaymentService paymentService;
+
+    @Value("${payment.admin.api-key:}")
+    private String adminApiKey;
+
+    /**
+     * Bulk status update for reconciliation jobs
+     * Updates payment records only; no payment messages are published.
+     * SUCCESS records keep their status unless overrideSuccess is set.
+     * 
+     * @param request Transaction IDs and the status to set
+     * @return Number of records updated
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<?> updatePaymentStatuses(@RequestHeader(value = ADMIN_KEY_HEADER, required = false) String adminKey,
+                                                   @Valid @RequestBody PaymentStatusUpdateRequest request) {
+        if (!authorized(adminKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            int updated = paymentService.updatePaymentStatuses(request.getTransactionIds(), request.getStatus(),
+                    request.isOverrideSuccess());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("requested", request.getTransactionIds().size());
+            response.put("updated", updated);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid status update");
+            errorResponse.put("message", e.getMessage());
+            
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    private boolean authorized(String adminKey) {
+        if (adminApiKey == null || adminApiKey.isEmpty() || adminKey == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminApiKey.getBytes(StandardCharsets.UTF_8),
+                adminKey.getBytes(StandardCharsets.UTF_8));
+    }
+}
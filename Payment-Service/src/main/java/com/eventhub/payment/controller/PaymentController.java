@@ -1,18 +1,19 @@
 package com.eventhub.payment.controller;
 
+import com.eventhub.payment.dto.CursorPage;
 import com.eventhub.payment.dto.PaymentConfirmRequest;
 import com.eventhub.payment.dto.PaymentIntentResponse;
 import com.eventhub.payment.dto.PaymentRequest;
 import com.eventhub.payment.entity.PaymentRecord;
+import com.eventhub.payment.service.IdempotencyKeyConflictException;
 import com.eventhub.payment.service.PaymentService;
-import com.stripe.Stripe;
-import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
-import jakarta.annotation.PostConstruct;
+import com.eventhub.payment.gateway.GatewayPaymentIntent;
+import com.eventhub.payment.gateway.PaymentGatewayException;
+import com.eventhub.payment.gateway.PaymentProviderBusyException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -33,19 +34,6 @@ public class PaymentController {
 
     private final PaymentService paymentService;
 
-    @Value("${stripe.api.key}")
-    private String stripeApiKey;
-
-    /**
-     * Initialize Stripe API key
-     */
-    @PostConstruct
-    public void init() {
-        Stripe.apiKey = stripeApiKey;
-        log.info("Stripe API initialized successfully");
-        log.info("Using Stripe API version: {}", Stripe.API_VERSION);
-    }
-
     /**
      * Health check endpoint
      */
@@ -61,23 +49,38 @@ public class PaymentController {
     /**
      * Create Payment Intent
      * Endpoint 1: POST /payments/create-intent
+     * A repeated Idempotency-Key returns the original response
      * 
      * @param request Payment request with amount, currency, and bookingId
+     * @param idempotencyKey Optional Idempotency-Key header
      * @return Payment Intent response with client secret
      */
     @PostMapping("/create-intent")
-    public ResponseEntity<?> createPaymentIntent(@Valid @RequestBody PaymentRequest request) {
+    public ResponseEntity<?> createPaymentIntent(@Valid @RequestBody PaymentRequest request,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             log.info("Received payment intent creation request for booking: {}", request.getBookingId());
             
-            PaymentIntentResponse response = paymentService.createPaymentIntent(request);
+            PaymentIntentResponse response = paymentService.createPaymentIntent(request, idempotencyKey);
             
             log.info("Payment intent created successfully: {}", response.getPaymentIntentId());
             
             return ResponseEntity.ok(response);
             
-        } catch (StripeException e) {
-            log.error("Stripe API error while creating payment intent: {}", e.getMessage(), e);
+        } catch (IdempotencyKeyConflictException e) {
+            log.warn("Rejected payment intent request: {}", e.getMessage());
+            
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Idempotency key conflict");
+            errorResponse.put("message", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+            
+        } catch (PaymentProviderBusyException e) {
+            return providerBusy(e);
+            
+        } catch (PaymentGatewayException e) {
+            log.error("Payment gateway error while creating payment intent: {}", e.getMessage(), e);
             
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Payment processing failed");
@@ -119,6 +122,9 @@ public class PaymentController {
             
             return ResponseEntity.ok(response);
             
+        } catch (PaymentProviderBusyException e) {
+            return providerBusy(e);
+            
         } catch (Exception e) {
             log.error("Error confirming payment: {}", e.getMessage(), e);
             
@@ -141,7 +147,7 @@ public class PaymentController {
         try {
             log.info("Retrieving payment intent: {}", paymentIntentId);
             
-            PaymentIntent paymentIntent = paymentService.getPaymentIntent(paymentIntentId);
+            GatewayPaymentIntent paymentIntent = paymentService.getPaymentIntent(paymentIntentId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("id", paymentIntent.getId());
@@ -153,8 +159,11 @@ public class PaymentController {
             
             return ResponseEntity.ok(response);
             
-        } catch (StripeException e) {
-            log.error("Stripe API error: {}", e.getMessage(), e);
+        } catch (PaymentProviderBusyException e) {
+            return providerBusy(e);
+            
+        } catch (PaymentGatewayException e) {
+            log.error("Payment gateway error: {}", e.getMessage(), e);
             
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to retrieve payment intent");
@@ -175,8 +184,7 @@ public class PaymentController {
         try {
             log.info("Cancelling payment intent: {}", paymentIntentId);
             
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
-            PaymentIntent cancelledIntent = paymentIntent.cancel();
+            GatewayPaymentIntent cancelledIntent = paymentService.cancelPaymentIntent(paymentIntentId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -186,7 +194,10 @@ public class PaymentController {
             
             return ResponseEntity.ok(response);
             
-        } catch (StripeException e) {
+        } catch (PaymentProviderBusyException e) {
+            return providerBusy(e);
+            
+        } catch (PaymentGatewayException e) {
             log.error("Error cancelling payment intent: {}", e.getMessage(), e);
             
             Map<String, String> errorResponse = new HashMap<>();
@@ -220,4 +231,32 @@ public class PaymentController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * Get payment history for a user, one page at a time
+     * @param userId User ID
+     * @param cursor Cursor returned by the previous page
+     * @param size Page size
+     * @return Page of payment records
+     */
+    @GetMapping("/history/{userId}/page")
+    public ResponseEntity<?> getPaymentHistoryPage(@PathVariable Long userId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size) {
+        log.info("Fetching payment history page for user: {}", userId);
+        CursorPage<PaymentRecord> page = paymentService.getUserPaymentHistoryPage(userId, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    private ResponseEntity<Map<String, String>> providerBusy(PaymentProviderBusyException e) {
+        log.warn("Payment provider busy: {}", e.getMessage());
+        
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Payment provider busy");
+        errorResponse.put("message", e.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
 }
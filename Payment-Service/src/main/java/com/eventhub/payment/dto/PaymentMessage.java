@@ -37,6 +37,8 @@ public class PaymentMessage implements Serializable {
     private LocalDateTime timestamp;
     
     private String message;
+    
+    private String customerEmail; // Receipt address, if the customer gave one
 
     /**
      * Constructor for success messages
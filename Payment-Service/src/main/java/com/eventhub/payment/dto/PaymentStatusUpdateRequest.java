@@ -0,0 +1,28 @@
+package com.eventhub.payment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Payment Status Update Request DTO
+ * Used by reconciliation jobs to set the status of many payments at once
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatusUpdateRequest {
+
+    @NotEmpty(message = "Transaction IDs are required")
+    private List<String> transactionIds;
+
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    // Required to move a SUCCESS record to another status
+    private boolean overrideSuccess;
+}
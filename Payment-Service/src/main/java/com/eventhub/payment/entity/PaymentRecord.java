@@ -5,7 +5,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payment_records")
+@Table(name = "payment_records", indexes = {
+        @Index(name = "idx_payment_records_user_id", columnList = "userId, id"),
+        @Index(name = "uk_payment_records_transaction_id", columnList = "transactionId", unique = true)
+})
 public class PaymentRecord {
     
     @Id
@@ -0,0 +1,32 @@
+package com.eventhub.payment.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Gateway Payment Intent
+ * Provider-neutral view of a payment intent; statuses use Stripe's names
+ * (requires_payment_method, requires_action, succeeded, canceled, ...)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayPaymentIntent {
+
+    private String id;
+
+    private String clientSecret;
+
+    private Long amount; // Amount in cents
+
+    private String currency;
+
+    private String status;
+
+    private String paymentMethod;
+
+    private Map<String, String> metadata;
+}
@@ -0,0 +1,44 @@
+package com.eventhub.payment.gateway;
+
+import com.eventhub.payment.dto.PaymentRequest;
+
+/**
+ * Payment Gateway
+ * Payment provider operations used by PaymentService.
+ * Selected with {@code payment.gateway}: {@code stripe} (default) or {@code simulated}.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Create a payment intent for a booking
+     * @param request Payment request details
+     * @param idempotencyKey Client's Idempotency-Key, or null; a repeated key returns the original intent
+     * @return Created intent
+     * @throws PaymentGatewayException if the provider call fails
+     */
+    GatewayPaymentIntent createIntent(PaymentRequest request, String idempotencyKey) throws PaymentGatewayException;
+
+    /**
+     * Retrieve a payment intent
+     * @param paymentIntentId Provider intent ID
+     * @return Current state of the intent
+     * @throws PaymentGatewayException if the provider call fails or the intent does not exist
+     */
+    GatewayPaymentIntent retrieveIntent(String paymentIntentId) throws PaymentGatewayException;
+
+    /**
+     * Confirm a payment intent with the provider's test payment method
+     * @param paymentIntentId Provider intent ID
+     * @return Intent after confirmation; may still need customer action
+     * @throws PaymentGatewayException if the provider call fails or the payment is declined
+     */
+    GatewayPaymentIntent confirmIntent(String paymentIntentId) throws PaymentGatewayException;
+
+    /**
+     * Cancel a payment intent
+     * @param paymentIntentId Provider intent ID
+     * @return Cancelled intent
+     * @throws PaymentGatewayException if the provider call fails
+     */
+    GatewayPaymentIntent cancelIntent(String paymentIntentId) throws PaymentGatewayException;
+}
@@ -0,0 +1,24 @@
+package com.eventhub.payment.gateway;
+
+/**
+ * Payment Gateway Exception
+ * Raised when a payment provider call fails; carries the provider's error code
+ */
+public class PaymentGatewayException extends Exception {
+
+    private final String code;
+
+    public PaymentGatewayException(String message, String code) {
+        super(message);
+        this.code = code;
+    }
+
+    public PaymentGatewayException(String message, String code, Throwable cause) {
+        super(message, cause);
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
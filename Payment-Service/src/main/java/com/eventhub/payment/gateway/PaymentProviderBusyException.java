@@ -0,0 +1,19 @@
+package com.eventhub.payment.gateway;
+
+/**
+ * Payment Provider Busy Exception
+ * Raised when no provider call slot frees up in time; the caller should retry later
+ */
+public class PaymentProviderBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PaymentProviderBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
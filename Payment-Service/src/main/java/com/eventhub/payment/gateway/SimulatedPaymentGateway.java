@@ -0,0 +1,170 @@
+package com.eventhub.payment.gateway;
+
+import com.eventhub.payment.dto.PaymentRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated Payment Gateway
+ * In-process Stripe stand-in for load testing checkout offline.
+ *
+ * Every call sleeps for {@code latency-ms} plus up to {@code latency-jitter-ms}
+ * and fails with a simulated API error at {@code failure-rate}. Confirming
+ * declines the card at {@code decline-rate}; at {@code requires-action-rate}
+ * the first confirm stops at requires_action, as a 3DS challenge would, and
+ * the next confirm succeeds. Intents are kept in memory, most recent
+ * {@code max-intents} only; a repeated Idempotency-Key returns the original intent.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "simulated")
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double failureRate;
+    private final double declineRate;
+    private final double requiresActionRate;
+    private final Map<String, GatewayPaymentIntent> intents;
+    private final Map<String, String> intentIdsByIdempotencyKey;
+
+    public SimulatedPaymentGateway(@Value("${payment.simulated.latency-ms:300}") long latencyMs,
+                                   @Value("${payment.simulated.latency-jitter-ms:200}") long latencyJitterMs,
+                                   @Value("${payment.simulated.failure-rate:0.01}") double failureRate,
+                                   @Value("${payment.simulated.decline-rate:0.02}") double declineRate,
+                                   @Value("${payment.simulated.requires-action-rate:0.1}") double requiresActionRate,
+                                   @Value("${payment.simulated.max-intents:100000}") int maxIntents) {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+        this.requiresActionRate = requiresActionRate;
+        this.intents = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GatewayPaymentIntent> eldest) {
+                return size() > maxIntents;
+            }
+        });
+        this.intentIdsByIdempotencyKey = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxIntents;
+            }
+        });
+        log.warn("Simulated payment gateway active - no real payments will be taken");
+    }
+
+    @Override
+    public GatewayPaymentIntent createIntent(PaymentRequest request, String idempotencyKey) throws PaymentGatewayException {
+        simulateNetwork();
+        if (idempotencyKey != null) {
+            String existingId = intentIdsByIdempotencyKey.get(idempotencyKey);
+            if (existingId != null && intents.containsKey(existingId)) {
+                return copy(find(existingId));
+            }
+        }
+        String id = "pi_sim_" + UUID.randomUUID().toString().replace("-", "");
+        GatewayPaymentIntent intent = new GatewayPaymentIntent(
+                id,
+                id + "_secret_" + UUID.randomUUID().toString().substring(0, 8),
+                (long) (request.getAmount() * 100),
+                request.getCurrency().toLowerCase(),
+                "requires_payment_method",
+                null,
+                Map.of("bookingId", String.valueOf(request.getBookingId()))
+        );
+        intents.put(id, intent);
+        if (idempotencyKey != null) {
+            intentIdsByIdempotencyKey.put(idempotencyKey, id);
+        }
+        return copy(intent);
+    }
+
+    @Override
+    public GatewayPaymentIntent retrieveIntent(String paymentIntentId) throws PaymentGatewayException {
+        simulateNetwork();
+        return copy(find(paymentIntentId));
+    }
+
+    @Override
+    public GatewayPaymentIntent confirmIntent(String paymentIntentId) throws PaymentGatewayException {
+        simulateNetwork();
+        GatewayPaymentIntent intent = find(paymentIntentId);
+        synchronized (intent) {
+            switch (intent.getStatus()) {
+                case "succeeded", "canceled" ->
+                        throw new PaymentGatewayException("This PaymentIntent's status is " + intent.getStatus(),
+                                "payment_intent_unexpected_state");
+                case "requires_action" -> succeed(intent); // Customer completed the challenge
+                default -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    if (random.nextDouble() < declineRate) {
+                        throw new PaymentGatewayException("Your card was declined.", "card_declined");
+                    }
+                    if (random.nextDouble() < requiresActionRate) {
+                        intent.setStatus("requires_action");
+                        intent.setPaymentMethod("pm_sim_card");
+                    } else {
+                        succeed(intent);
+                    }
+                }
+            }
+            return copy(intent);
+        }
+    }
+
+    @Override
+    public GatewayPaymentIntent cancelIntent(String paymentIntentId) throws PaymentGatewayException {
+        simulateNetwork();
+        GatewayPaymentIntent intent = find(paymentIntentId);
+        synchronized (intent) {
+            if ("succeeded".equals(intent.getStatus())) {
+                throw new PaymentGatewayException("This PaymentIntent's status is succeeded",
+                        "payment_intent_unexpected_state");
+            }
+            intent.setStatus("canceled");
+            return copy(intent);
+        }
+    }
+
+    private void succeed(GatewayPaymentIntent intent) {
+        intent.setStatus("succeeded");
+        intent.setPaymentMethod("pm_sim_card");
+    }
+
+    private GatewayPaymentIntent find(String paymentIntentId) throws PaymentGatewayException {
+        GatewayPaymentIntent intent = intents.get(paymentIntentId);
+        if (intent == null) {
+            throw new PaymentGatewayException("No such payment_intent: '" + paymentIntentId + "'", "resource_missing");
+        }
+        return intent;
+    }
+
+    private void simulateNetwork() throws PaymentGatewayException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted", "api_connection_error", e);
+        }
+        if (random.nextDouble() < failureRate) {
+            throw new PaymentGatewayException("Simulated API error", "api_error");
+        }
+    }
+
+    // Callers get a snapshot, never the stored intent
+    private GatewayPaymentIntent copy(GatewayPaymentIntent intent) {
+        return new GatewayPaymentIntent(intent.getId(), intent.getClientSecret(), intent.getAmount(),
+                intent.getCurrency(), intent.getStatus(), intent.getPaymentMethod(), intent.getMetadata());
+    }
+}
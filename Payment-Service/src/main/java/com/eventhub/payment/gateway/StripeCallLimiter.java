@@ -0,0 +1,68 @@
+package com.eventhub.payment.gateway;
+
+import com.stripe.exception.StripeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stripe Call Limiter
+ * Caps the number of concurrent Stripe API calls.
+ *
+ * With virtual threads enabled the request threads are no longer the limit,
+ * so without this a spike would open one Stripe connection per checkout and
+ * run into Stripe's rate limits. Callers over the cap wait up to
+ * {@code acquire-timeout-ms} for a slot and are then turned away with a
+ * {@link PaymentProviderBusyException}.
+ */
+@Component
+@Slf4j
+public class StripeCallLimiter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public StripeCallLimiter(@Value("${stripe.max-concurrent-calls:100}") int maxConcurrentCalls,
+                             @Value("${stripe.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    /**
+     * Run a Stripe call once a slot is free
+     * @param call Stripe API call
+     * @return Result of the call
+     * @throws StripeException if the Stripe API call fails
+     * @throws PaymentProviderBusyException if no slot frees up within the acquire timeout
+     */
+    public <T> T call(StripeCall<T> call) throws StripeException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a Stripe call slot", e);
+        }
+        if (!acquired) {
+            log.warn("No Stripe call slot free after {} ms", acquireTimeoutMs);
+            throw new PaymentProviderBusyException("Payment provider is busy, please retry",
+                    Math.max(1, TimeUnit.MILLISECONDS.toSeconds(acquireTimeoutMs)));
+        }
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * A Stripe API call
+     */
+    @FunctionalInterface
+    public interface StripeCall<T> {
+        T call() throws StripeException;
+    }
+}
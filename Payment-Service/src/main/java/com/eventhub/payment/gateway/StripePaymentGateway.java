@@ -0,0 +1,122 @@
+package com.eventhub.payment.gateway;
+
+import com.eventhub.payment.dto.PaymentRequest;
+import com.stripe.Stripe;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentConfirmParams;
+import com.stripe.param.PaymentIntentCreateParams;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stripe Payment Gateway
+ * Payment intents through the Stripe API, limited by {@link StripeCallLimiter}
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stripe", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class StripePaymentGateway implements PaymentGateway {
+
+    private final StripeCallLimiter stripeCallLimiter;
+
+    @Value("${stripe.api.key}")
+    private String stripeApiKey;
+
+    /**
+     * Initialize Stripe API key
+     */
+    @PostConstruct
+    public void init() {
+        Stripe.apiKey = stripeApiKey;
+        log.info("Stripe API initialized successfully");
+        log.info("Using Stripe API version: {}", Stripe.API_VERSION);
+    }
+
+    @Override
+    public GatewayPaymentIntent createIntent(PaymentRequest request, String idempotencyKey) throws PaymentGatewayException {
+        // Convert amount to cents (Stripe requires amount in smallest currency unit)
+        Long amountInCents = (long) (request.getAmount() * 100);
+
+        // Build Payment Intent parameters
+        PaymentIntentCreateParams.Builder paramsBuilder = PaymentIntentCreateParams.builder()
+                .setAmount(amountInCents)
+                .setCurrency(request.getCurrency().toLowerCase())
+                .addPaymentMethodType("card")
+                .putMetadata("bookingId", String.valueOf(request.getBookingId()));
+
+        // Add optional description
+        if (request.getDescription() != null && !request.getDescription().isEmpty()) {
+            paramsBuilder.setDescription(request.getDescription());
+        } else {
+            paramsBuilder.setDescription("Event Ticket Booking #" + request.getBookingId());
+        }
+
+        // Add optional customer email
+        if (request.getCustomerEmail() != null && !request.getCustomerEmail().isEmpty()) {
+            paramsBuilder.setReceiptEmail(request.getCustomerEmail());
+        }
+
+        PaymentIntentCreateParams params = paramsBuilder.build();
+        if (idempotencyKey == null) {
+            return call(() -> PaymentIntent.create(params));
+        }
+        // Stripe replays the original intent for a repeated key instead of creating another
+        RequestOptions options = RequestOptions.builder().setIdempotencyKey(idempotencyKey).build();
+        return call(() -> PaymentIntent.create(params, options));
+    }
+
+    @Override
+    public GatewayPaymentIntent retrieveIntent(String paymentIntentId) throws PaymentGatewayException {
+        return call(() -> PaymentIntent.retrieve(paymentIntentId));
+    }
+
+    @Override
+    public GatewayPaymentIntent confirmIntent(String paymentIntentId) throws PaymentGatewayException {
+        // For test mode: confirm with test payment method
+        PaymentIntentConfirmParams confirmParams = PaymentIntentConfirmParams.builder()
+                .setPaymentMethod("pm_card_visa") // Stripe test payment method
+                .build();
+        return call(() -> reference(paymentIntentId).confirm(confirmParams));
+    }
+
+    @Override
+    public GatewayPaymentIntent cancelIntent(String paymentIntentId) throws PaymentGatewayException {
+        return call(() -> reference(paymentIntentId).cancel());
+    }
+
+    /**
+     * Intent handle carrying only the ID; enough for instance calls, saves a retrieve round trip
+     */
+    private PaymentIntent reference(String paymentIntentId) {
+        PaymentIntent paymentIntent = new PaymentIntent();
+        paymentIntent.setId(paymentIntentId);
+        return paymentIntent;
+    }
+
+    private GatewayPaymentIntent call(StripeCallLimiter.StripeCall<PaymentIntent> call) throws PaymentGatewayException {
+        try {
+            return toGatewayIntent(stripeCallLimiter.call(call));
+        } catch (StripeException e) {
+            throw new PaymentGatewayException(e.getMessage(), e.getCode(), e);
+        }
+    }
+
+    private GatewayPaymentIntent toGatewayIntent(PaymentIntent paymentIntent) {
+        return new GatewayPaymentIntent(
+                paymentIntent.getId(),
+                paymentIntent.getClientSecret(),
+                paymentIntent.getAmount(),
+                paymentIntent.getCurrency(),
+                paymentIntent.getStatus(),
+                paymentIntent.getPaymentMethod(),
+                paymentIntent.getMetadata()
+        );
+    }
+}
@@ -0,0 +1,44 @@
+package com.eventhub.payment.repository;
+
+import com.eventhub.payment.entity.PaymentOutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PaymentOutboxMessageRepository extends JpaRepository<PaymentOutboxMessage, Long> {
+
+    // lock.timeout -2 makes Hibernate emit SKIP LOCKED, so relays on other instances take other rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM PaymentOutboxMessage m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<PaymentOutboxMessage> lockDueMessages(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutboxMessage m SET m.status = 'SENT', m.sentAt = :sentAt, m.lastError = null WHERE m.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutboxMessage m SET m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError " +
+           "WHERE m.id = :id AND m.status = 'PENDING'")
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PaymentOutboxMessage m WHERE m.status = 'SENT' AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
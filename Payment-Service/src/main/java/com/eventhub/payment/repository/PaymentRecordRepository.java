@@ -1,9 +1,18 @@
 package com.eventhub.payment.repository;
 
 import com.eventhub.payment.entity.PaymentRecord;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +21,29 @@ public interface PaymentRecordRepository extends JpaRepository<PaymentRecord, Lo
     
     List<PaymentRecord> findByUserIdOrderByCreatedAtDesc(Long userId);
     
+    List<PaymentRecord> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id, Limit limit);
+    
     List<PaymentRecord> findByBookingId(Long bookingId);
     
     Optional<PaymentRecord> findByTransactionId(String transactionId);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM PaymentRecord r WHERE r.transactionId = :transactionId")
+    Optional<PaymentRecord> lockByTransactionId(@Param("transactionId") String transactionId);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentRecord r SET r.status = :status, r.updatedAt = :updatedAt WHERE r.transactionId IN :transactionIds")
+    int updateStatus(@Param("transactionIds") Collection<String> transactionIds, @Param("status") String status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentRecord r SET r.status = :status, r.updatedAt = :updatedAt " +
+           "WHERE r.transactionId IN :transactionIds AND r.status <> 'SUCCESS'")
+    int updateStatusUnlessSucceeded(@Param("transactionIds") Collection<String> transactionIds,
+                                    @Param("status") String status,
+                                    @Param("updatedAt") LocalDateTime updatedAt);
+    
     List<PaymentRecord> findByStatus(String status);
 }
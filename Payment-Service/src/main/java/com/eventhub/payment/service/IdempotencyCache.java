@@ -0,0 +1,195 @@
+package com.eventhub.payment.service;
+
+import com.eventhub.payment.dto.PaymentIntentResponse;
+import com.eventhub.payment.entity.IdempotencyRecord;
+import com.eventhub.payment.gateway.PaymentGatewayException;
+import com.eventhub.payment.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Idempotency Cache
+ * Short-lived store of create-intent responses keyed by Idempotency-Key.
+ *
+ * Recent responses are served from a bounded in-memory LRU; older ones, or
+ * ones written by another instance, from payment_idempotency_keys. Concurrent
+ * requests with the same key on this instance wait for the first one instead
+ * of calling the gateway again.
+ */
+@Component
+@Slf4j
+public class IdempotencyCache {
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Map<String, Entry> recent;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyCache(IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper,
+                            @Value("${payment.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${payment.idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Return the stored response for a key, or run the call and store its result
+     * @param key Idempotency-Key
+     * @param fingerprint Identifies the request; a key reused with another request is rejected
+     * @param call Creates the response; must persist it with {@link #save} in its own transaction
+     * @return Original or newly created response
+     * @throws PaymentGatewayException if the call fails
+     */
+    public PaymentIntentResponse execute(String key, String fingerprint, Call call) throws PaymentGatewayException {
+        Entry cached = recent.get(key);
+        if (cached != null && cached.expiresAt.isAfter(LocalDateTime.now())) {
+            return replay(key, fingerprint, cached);
+        }
+
+        InFlight mine = new InFlight(fingerprint);
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(key, fingerprint, running);
+        }
+        try {
+            Entry stored = load(key);
+            PaymentIntentResponse response = stored != null
+                    ? replay(key, fingerprint, stored)
+                    : call.execute();
+            if (stored == null) {
+                recent.put(key, new Entry(fingerprint, response, LocalDateTime.now().plus(ttl)));
+            }
+            mine.future.complete(response);
+            return response;
+        } catch (PaymentGatewayException | RuntimeException e) {
+            mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Persist a response in the caller's transaction
+     * An expired row for the key that purgeExpired has not reached yet is
+     * replaced, so it cannot trip the unique key.
+     */
+    public void save(String key, String fingerprint, PaymentIntentResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.deleteExpiredKey(key, now);
+        try {
+            repository.save(new IdempotencyRecord(key, fingerprint,
+                    objectMapper.writeValueAsString(response), now.plus(ttl)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize idempotent response", e);
+        }
+    }
+
+    /**
+     * Stored response for a key written by another instance, if still valid
+     */
+    public PaymentIntentResponse find(String key, String fingerprint) {
+        Entry stored = load(key);
+        return stored != null ? replay(key, fingerprint, stored) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        recent.values().removeIf(entry -> entry.expiresAt.isBefore(now));
+        int purged = repository.deleteExpired(now);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Entry load(String key) {
+        return repository.findByIdempotencyKey(key)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> {
+                    try {
+                        Entry entry = new Entry(record.getFingerprint(),
+                                objectMapper.readValue(record.getResponse(), PaymentIntentResponse.class),
+                                record.getExpiresAt());
+                        recent.put(key, entry);
+                        return entry;
+                    } catch (JsonProcessingException e) {
+                        log.warn("Unreadable idempotent response for key {}: {}", key, e.getMessage());
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    private PaymentIntentResponse replay(String key, String fingerprint, Entry entry) {
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyConflictException(key);
+        }
+        log.info("Replaying stored response for Idempotency-Key {}", key);
+        return entry.response;
+    }
+
+    private PaymentIntentResponse await(String key, String fingerprint, InFlight running) throws PaymentGatewayException {
+        if (!running.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyConflictException(key);
+        }
+        try {
+            return running.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a duplicate request", e);
+        } catch (ExecutionException e) {
+            // Same outcome as the request we waited for
+            if (e.getCause() instanceof PaymentGatewayException gatewayException) {
+                throw gatewayException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Creates the response for a first-seen key
+     */
+    @FunctionalInterface
+    public interface Call {
+        PaymentIntentResponse execute() throws PaymentGatewayException;
+    }
+
+    private record Entry(String fingerprint, PaymentIntentResponse response, LocalDateTime expiresAt) {
+    }
+
+    private static final class InFlight {
+
+        private final String fingerprint;
+        private final CompletableFuture<PaymentIntentResponse> future = new CompletableFuture<>();
+
+        private InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
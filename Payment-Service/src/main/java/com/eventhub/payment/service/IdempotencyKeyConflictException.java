@@ -0,0 +1,11 @@
+package com.eventhub.payment.service;
+
+/**
+ * Raised when an Idempotency-Key is reused with a different request
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String idempotencyKey) {
+        super("Idempotency-Key " + idempotencyKey + " was already used with a different request");
+    }
+}
@@ -0,0 +1,127 @@
+package com.eventhub.payment.service;
+
+import com.eventhub.payment.dto.PaymentMessage;
+import com.eventhub.payment.entity.PaymentOutboxMessage;
+import com.eventhub.payment.repository.PaymentOutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Payment Outbox
+ * Stores outgoing payment messages in payment_outbox alongside the payment
+ * record change that produced them, and tracks their delivery.
+ *
+ * A claimed row is leased for {@code lease-ms} so other relays leave it alone
+ * while its confirm is outstanding; a failed publish pulls the next attempt in
+ * to the exponential backoff instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentOutbox {
+
+    private final PaymentOutboxMessageRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${payment.outbox.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${payment.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${payment.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${payment.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    /**
+     * Add a message to the outbox in the caller's transaction
+     * @param message Payment message to publish once the transaction commits
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(PaymentMessage message) {
+        try {
+            repository.save(new PaymentOutboxMessage(message.getTransactionId(), objectMapper.writeValueAsString(message)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize payment message", e);
+        }
+    }
+
+    /**
+     * Claim due messages for publishing
+     * @param limit Maximum number of messages to claim
+     * @return Claimed messages, leased to the caller
+     */
+    @Transactional
+    public List<PaymentOutboxMessage> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentOutboxMessage> due = repository.lockDueMessages(now, PageRequest.of(0, limit));
+        for (PaymentOutboxMessage message : due) {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setNextAttemptAt(now.plus(Duration.ofMillis(leaseMs)));
+        }
+        return repository.saveAll(due);
+    }
+
+    /**
+     * Record publish outcomes in one transaction
+     * @param sentIds Outbox message IDs the broker confirmed
+     * @param failures Messages to schedule another attempt for
+     */
+    @Transactional
+    public void record(List<Long> sentIds, List<Failure> failures) {
+        if (!sentIds.isEmpty()) {
+            repository.markSent(sentIds, LocalDateTime.now());
+        }
+        for (Failure failure : failures) {
+            failed(failure.id(), failure.attempts(), failure.reason());
+        }
+    }
+
+    /**
+     * Schedule the next attempt for a message the broker did not confirm
+     * @param id Outbox message ID
+     * @param attempts Attempts made so far
+     * @param reason Why the publish failed
+     */
+    public void failed(Long id, int attempts, String reason) {
+        repository.reschedule(id, LocalDateTime.now().plus(backoff(attempts)), reason);
+        log.warn("Payment outbox message {} not delivered (attempt {}): {}", id, attempts, reason);
+    }
+
+    public PaymentMessage readPayload(PaymentOutboxMessage message) throws JsonProcessingException {
+        return objectMapper.readValue(message.getPayload(), PaymentMessage.class);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        int purged = repository.deleteSentBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            log.info("Purged {} delivered payment outbox messages", purged);
+        }
+    }
+
+    /**
+     * A publish that did not go through
+     */
+    public record Failure(Long id, int attempts, String reason) {
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(Math.max(attempts - 1, 0), 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+}
@@ -0,0 +1,221 @@
+package com.eventhub.payment.service;
+
+import com.eventhub.payment.dto.PaymentMessage;
+import com.eventhub.payment.entity.PaymentOutboxMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment Outbox Relay
+ * Drains the {@link PaymentOutbox} to payment_exchange with correlated publisher confirms.
+ *
+ * A scheduled poll claims due outbox rows onto a local queue, no more than
+ * the free confirm window can take, so claimed rows go out well inside their
+ * lease. A single publisher thread drains that queue in batches and sends each
+ * batch back to back on one channel, keeping at most {@code max-in-flight}
+ * messages awaiting a confirm. A confirmed message is marked SENT; one that is
+ * nacked, returned as unroutable, not confirmed within the timeout, or cannot
+ * be sent at all stays PENDING and is retried with backoff. Confirms only
+ * queue their outcome; the publisher thread writes outcomes in batches, so no
+ * database call runs on a connection thread. Nothing here runs on the HTTP
+ * request path, and delivery is at-least-once.
+ */
+@Component
+@Slf4j
+public class PaymentOutboxRelay {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final PaymentOutbox paymentOutbox;
+    private final String exchangeName;
+    private final String routingKey;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final Semaphore inFlight;
+    private final BlockingQueue<Outgoing> queue;
+    // Filled by confirm callbacks, written to the database by the publisher thread
+    private final ConcurrentLinkedQueue<Outcome> outcomes = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Thread publisherThread;
+
+    public PaymentOutboxRelay(RabbitTemplate rabbitTemplate,
+                              PaymentOutbox paymentOutbox,
+                              @Value("${rabbitmq.payment.exchange}") String exchangeName,
+                              @Value("${rabbitmq.payment.routing-key}") String routingKey,
+                              @Value("${payment.outbox.relay.queue-capacity:1000}") int queueCapacity,
+                              @Value("${payment.outbox.relay.batch-size:100}") int batchSize,
+                              @Value("${payment.outbox.relay.max-in-flight:500}") int maxInFlight,
+                              @Value("${payment.outbox.relay.confirm-timeout-ms:10000}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.paymentOutbox = paymentOutbox;
+        this.exchangeName = exchangeName;
+        this.routingKey = routingKey;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        // A whole batch must fit in the window, or the publisher thread would wait on itself
+        this.inFlight = new Semaphore(Math.max(maxInFlight, batchSize));
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, batchSize));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        publisherThread = new Thread(this::drain, "payment-outbox-relay");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Rows still queued or awaiting a confirm stay PENDING and are claimed again once their lease ends
+        running = false;
+        publisherThread.join(confirmTimeoutMs);
+        recordOutcomes();
+    }
+
+    /**
+     * Claim due outbox messages for publishing
+     */
+    @Scheduled(fixedDelayString = "${payment.outbox.relay.interval-ms:200}")
+    public void relay() {
+        // Rows beyond what the confirm window takes would sit in the queue while their lease runs out
+        int capacity = Math.min(queue.remainingCapacity(), inFlight.availablePermits() - queue.size());
+        if (capacity <= 0) {
+            return;
+        }
+        List<PaymentOutboxMessage> due = paymentOutbox.claimDue(capacity);
+        for (PaymentOutboxMessage message : due) {
+            try {
+                queue.add(new Outgoing(paymentOutbox.readPayload(message), message.getId(), message.getAttempts()));
+            } catch (Exception e) {
+                paymentOutbox.failed(message.getId(), message.getAttempts(), "Unreadable payload: " + e.getMessage());
+            }
+        }
+        if (!due.isEmpty()) {
+            log.debug("Claimed {} payment outbox messages", due.size());
+        }
+    }
+
+    private void drain() {
+        List<Outgoing> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                recordOutcomes();
+                Outgoing first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                inFlight.acquire(batch.size());
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<Outgoing> batch) {
+        try {
+            // One channel for the whole batch; confirms for it arrive asynchronously
+            rabbitTemplate.invoke(operations -> {
+                for (Outgoing outgoing : batch) {
+                    operations.convertAndSend(exchangeName, routingKey, outgoing.message, track(outgoing));
+                }
+                return null;
+            });
+            log.debug("Published {} payment messages to exchange: {}, routing key: {}", batch.size(), exchangeName, routingKey);
+        } catch (Exception e) {
+            log.error("Failed to publish payment messages to RabbitMQ: {}", e.getMessage(), e);
+            // Tracked messages complete through their future (nack on channel close, or the
+            // confirm timeout); only release and reschedule the ones that never reached a channel
+            for (Outgoing outgoing : batch) {
+                if (!outgoing.tracked) {
+                    inFlight.release();
+                    outcomes.add(new Outcome(outgoing, "Publish failed: " + e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private CorrelationData track(Outgoing outgoing) {
+        CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+        outgoing.tracked = true;
+        correlation.getFuture()
+                .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    // Runs on the connection thread or the timeout scheduler; no blocking calls here
+                    inFlight.release();
+                    if (error != null) {
+                        outcomes.add(new Outcome(outgoing, "No confirm within " + confirmTimeoutMs + " ms"));
+                    } else if (!confirm.isAck()) {
+                        outcomes.add(new Outcome(outgoing, "Broker nack: " + confirm.getReason()));
+                    } else if (correlation.getReturned() != null) {
+                        outcomes.add(new Outcome(outgoing, "Unroutable: " + correlation.getReturned().getReplyText()));
+                    } else {
+                        outcomes.add(new Outcome(outgoing, null));
+                    }
+                });
+        return correlation;
+    }
+
+    private void recordOutcomes() {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        List<Long> sent = new ArrayList<>();
+        List<PaymentOutbox.Failure> failures = new ArrayList<>();
+        Outcome outcome;
+        while ((outcome = outcomes.poll()) != null) {
+            if (outcome.failure == null) {
+                sent.add(outcome.outgoing.outboxId);
+            } else {
+                failures.add(new PaymentOutbox.Failure(outcome.outgoing.outboxId, outcome.outgoing.attempts, outcome.failure));
+            }
+        }
+        try {
+            paymentOutbox.record(sent, failures);
+        } catch (Exception e) {
+            // The rows are claimed again once their lease ends; delivery stays at-least-once
+            log.error("Failed to record {} payment outbox outcomes: {}", sent.size() + failures.size(), e.getMessage());
+        }
+    }
+
+    private static final class Outgoing {
+
+        private final PaymentMessage message;
+        private final Long outboxId;
+        private final int attempts;
+        private volatile boolean tracked;
+
+        private Outgoing(PaymentMessage message, Long outboxId, int attempts) {
+            this.message = message;
+            this.outboxId = outboxId;
+            this.attempts = attempts;
+        }
+    }
+
+    /**
+     * @param failure Why the publish failed, or null if the broker confirmed it
+     */
+    private record Outcome(Outgoing outgoing, String failure) {
+    }
+}
@@ -3,74 +3,68 @@ package com.eventhub.payment.service;
 import com.eventhub.payment.dto.*;
 import com.eventhub.payment.entity.PaymentRecord;
 import com.eventhub.payment.repository.PaymentRecordRepository;
-import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
-import com.stripe.param.PaymentIntentCreateParams;
-import com.stripe.param.PaymentIntentConfirmParams;
+import com.eventhub.payment.gateway.GatewayPaymentIntent;
+import com.eventhub.payment.gateway.PaymentGateway;
+import com.eventhub.payment.gateway.PaymentGatewayException;
+import com.eventhub.payment.gateway.PaymentProviderBusyException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Payment Service
- * Handles Stripe payment operations and RabbitMQ messaging
+ * Handles payment operations through the configured PaymentGateway and RabbitMQ messaging
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class PaymentService {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final PaymentRecordRepository paymentRecordRepository;
-
-    @Value("${rabbitmq.payment.exchange}")
-    private String exchangeName;
+    private static final Set<String> PAYMENT_STATUSES = Set.of("PENDING", "SUCCESS", "FAILED", "CANCELLED");
+    private static final int STATUS_UPDATE_CHUNK = 1000;
 
-    @Value("${rabbitmq.payment.routing-key}")
-    private String routingKey;
+    private final PaymentOutbox paymentOutbox;
+    private final PaymentRecordRepository paymentRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentGateway paymentGateway;
+    private final IdempotencyCache idempotencyCache;
 
     /**
-     * Create a Stripe Payment Intent
+     * Create a Payment Intent
+     * With an Idempotency-Key, a repeated request gets the original response
+     * back instead of a second intent and payment record; the key is also
+     * forwarded to the gateway.
      * @param request Payment request details
+     * @param idempotencyKey Client's Idempotency-Key, or null
      * @return Payment Intent response with client secret
-     * @throws StripeException if Stripe API call fails
+     * @throws PaymentGatewayException if the gateway call fails
      */
-    public PaymentIntentResponse createPaymentIntent(PaymentRequest request) throws StripeException {
-        log.info("Creating Payment Intent for booking: {}, amount: {}{}", 
-                request.getBookingId(), request.getAmount(), request.getCurrency().toUpperCase());
-
-        // Convert amount to cents (Stripe requires amount in smallest currency unit)
-        Long amountInCents = (long) (request.getAmount() * 100);
-
-        // Build Payment Intent parameters
-        PaymentIntentCreateParams.Builder paramsBuilder = PaymentIntentCreateParams.builder()
-                .setAmount(amountInCents)
-                .setCurrency(request.getCurrency().toLowerCase())
-                .addPaymentMethodType("card")
-                .putMetadata("bookingId", String.valueOf(request.getBookingId()));
-
-        // Add optional description
-        if (request.getDescription() != null && !request.getDescription().isEmpty()) {
-            paramsBuilder.setDescription(request.getDescription());
-        } else {
-            paramsBuilder.setDescription("Event Ticket Booking #" + request.getBookingId());
-        }
-
-        // Add optional customer email
-        if (request.getCustomerEmail() != null && !request.getCustomerEmail().isEmpty()) {
-            paramsBuilder.setReceiptEmail(request.getCustomerEmail());
+    public PaymentIntentResponse createPaymentIntent(PaymentRequest request, String idempotencyKey) throws PaymentGatewayException {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createAndRecordIntent(request, null, null);
         }
+        String fingerprint = request.getBookingId() + "|" + request.getUserId() + "|"
+                + request.getAmount() + "|" + request.getCurrency().toLowerCase();
+        return idempotencyCache.execute(idempotencyKey, fingerprint,
+                () -> createAndRecordIntent(request, idempotencyKey, fingerprint));
+    }
 
-        PaymentIntentCreateParams params = paramsBuilder.build();
+    private PaymentIntentResponse createAndRecordIntent(PaymentRequest request, String idempotencyKey,
+                                                        String fingerprint) throws PaymentGatewayException {
+        log.info("Creating Payment Intent for booking: {}, amount: {}{}", 
+                request.getBookingId(), request.getAmount(), request.getCurrency().toUpperCase());
 
-        // Create Payment Intent via Stripe API
-        PaymentIntent paymentIntent = PaymentIntent.create(params);
+        // Create Payment Intent via the payment gateway
+        GatewayPaymentIntent paymentIntent = paymentGateway.createIntent(request, idempotencyKey);
 
         log.info("Payment Intent created successfully: {}", paymentIntent.getId());
 
@@ -85,11 +79,9 @@ public class PaymentService {
         paymentRecord.setStatus("PENDING");
         paymentRecord.setCustomerEmail(request.getCustomerEmail());
         paymentRecord.setDescription(request.getDescription());
-        paymentRecordRepository.save(paymentRecord);
-        log.info("Payment record saved to database: {}", paymentIntent.getId());
 
-        // Return response with client secret
-        return new PaymentIntentResponse(
+        // Response with client secret
+        PaymentIntentResponse response = new PaymentIntentResponse(
                 paymentIntent.getClientSecret(),
                 paymentIntent.getId(),
                 paymentIntent.getAmount(),
@@ -97,10 +89,36 @@ public class PaymentService {
                 paymentIntent.getStatus(),
                 request.getBookingId()
         );
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                paymentRecordRepository.save(paymentRecord);
+                if (idempotencyKey != null) {
+                    idempotencyCache.save(idempotencyKey, fingerprint, response);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance got the same intent back for this key and recorded it first
+            PaymentIntentResponse stored = idempotencyKey != null ? idempotencyCache.find(idempotencyKey, fingerprint) : null;
+            if (stored != null) {
+                return stored;
+            }
+            // The gateway replayed an intent we recorded earlier, after our own copy of the key expired
+            if (paymentRecordRepository.findByTransactionId(paymentIntent.getId()).isEmpty()) {
+                throw e;
+            }
+            log.info("Payment record already exists for replayed intent: {}", paymentIntent.getId());
+            return response;
+        }
+        log.info("Payment record saved to database: {}", paymentIntent.getId());
+
+        return response;
     }
 
     /**
      * Confirm payment and publish message to RabbitMQ
+     * The message is written to the payment outbox in the same transaction as
+     * the record update; PaymentOutboxRelay publishes it after commit.
      * @param request Payment confirmation request
      */
     public void confirmPayment(PaymentConfirmRequest request) {
@@ -108,28 +126,26 @@ public class PaymentService {
                 request.getBookingId(), request.getPaymentIntentId());
 
         try {
-            // First, confirm the payment intent with Stripe (for test mode)
-            PaymentIntent retrievedPaymentIntent = PaymentIntent.retrieve(request.getPaymentIntentId());
+            // First, confirm the payment intent with the gateway (for test mode)
+            GatewayPaymentIntent retrievedPaymentIntent = paymentGateway.retrieveIntent(request.getPaymentIntentId());
             
             // If payment intent is not succeeded, try to confirm it with test payment method
             if (!"succeeded".equals(retrievedPaymentIntent.getStatus())) {
                 log.info("Payment Intent status is {}, attempting to confirm with test payment method", retrievedPaymentIntent.getStatus());
                 
-                // For test mode: confirm with test payment method
-                PaymentIntentConfirmParams confirmParams = PaymentIntentConfirmParams.builder()
-                        .setPaymentMethod("pm_card_visa") // Stripe test payment method
-                        .build();
-                
                 try {
-                    retrievedPaymentIntent = retrievedPaymentIntent.confirm(confirmParams);
+                    retrievedPaymentIntent = paymentGateway.confirmIntent(request.getPaymentIntentId());
                     log.info("Payment Intent confirmed, new status: {}", retrievedPaymentIntent.getStatus());
+                } catch (PaymentProviderBusyException e) {
+                    // No Stripe slot: the caller gets 503 and retries, rather than a PENDING answer
+                    throw e;
                 } catch (Exception e) {
                     log.warn("Could not auto-confirm payment intent: {}", e.getMessage());
                     // Continue with original payment intent
                 }
             }
             
-            final PaymentIntent finalPaymentIntent = retrievedPaymentIntent;
+            final GatewayPaymentIntent finalPaymentIntent = retrievedPaymentIntent;
             log.info("Retrieved Payment Intent: id={}, status={}", finalPaymentIntent.getId(), finalPaymentIntent.getStatus());
 
             // Check if payment actually succeeded
@@ -138,36 +154,42 @@ public class PaymentService {
                 String status = "SUCCESS";
                 String message = "Payment completed successfully";
 
-                // Update payment record in database
-                paymentRecordRepository.findByTransactionId(request.getPaymentIntentId())
-                        .ifPresent(record -> {
-                            record.setStatus(status);
-                            record.setPaymentMethod(finalPaymentIntent.getPaymentMethod());
-                            paymentRecordRepository.save(record);
-                            log.info("Payment record updated to SUCCESS: transactionId={}", request.getPaymentIntentId());
-                        });
-
-                // Create SUCCESS payment message
-                PaymentMessage paymentMessage = new PaymentMessage();
-                paymentMessage.setBookingId(request.getBookingId());
-                paymentMessage.setStatus(status);
-                paymentMessage.setTransactionId(request.getPaymentIntentId());
-                paymentMessage.setAmount(request.getAmount());
-                paymentMessage.setCurrency(request.getCurrency());
-                paymentMessage.setTimestamp(LocalDateTime.now());
-                paymentMessage.setMessage(message);
-
-                // Fetch user ID from payment record
-                paymentRecordRepository.findByTransactionId(request.getPaymentIntentId())
-                        .ifPresent(record -> {
-                            paymentMessage.setUserId(record.getUserId());
-                            paymentMessage.setEventId(record.getEventId() != null ? record.getEventId() : record.getBookingId()); // Use eventId if available, fallback to bookingId
-                        });
-
-                // Publish SUCCESS message to RabbitMQ - this will trigger ticket creation
-                publishPaymentMessage(paymentMessage);
-
-                log.info("✅ SUCCESS payment message published for booking: {}", request.getBookingId());
+                // Status change and outbox row commit together, so a SUCCESS is never left unpublished.
+                // One locked read serves both the update and the message's user/event ids, and
+                // serializes concurrent confirms of the same intent.
+                boolean published = Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+                    PaymentMessage paymentMessage = new PaymentMessage();
+                    paymentMessage.setBookingId(request.getBookingId());
+                    paymentMessage.setStatus(status);
+                    paymentMessage.setTransactionId(request.getPaymentIntentId());
+                    paymentMessage.setAmount(request.getAmount());
+                    paymentMessage.setCurrency(request.getCurrency());
+                    paymentMessage.setTimestamp(LocalDateTime.now());
+                    paymentMessage.setMessage(message);
+
+                    PaymentRecord record = paymentRecordRepository.lockByTransactionId(request.getPaymentIntentId()).orElse(null);
+                    if (record != null) {
+                        if (status.equals(record.getStatus())) {
+                            log.info("Payment already confirmed, not publishing again: transactionId={}", request.getPaymentIntentId());
+                            return false;
+                        }
+                        // Managed entity; the update is flushed on commit
+                        record.setStatus(status);
+                        record.setPaymentMethod(finalPaymentIntent.getPaymentMethod());
+                        paymentMessage.setUserId(record.getUserId());
+                        paymentMessage.setEventId(record.getEventId() != null ? record.getEventId() : record.getBookingId()); // Use eventId if available, fallback to bookingId
+                        paymentMessage.setCustomerEmail(record.getCustomerEmail());
+                        log.info("Payment record updated to SUCCESS: transactionId={}", request.getPaymentIntentId());
+                    }
+
+                    // Publish SUCCESS message to RabbitMQ via the outbox - this will trigger ticket creation
+                    paymentOutbox.enqueue(paymentMessage);
+                    return true;
+                }));
+
+                if (published) {
+                    log.info("✅ SUCCESS payment message queued for booking: {}", request.getBookingId());
+                }
 
             } else {
                 // Payment not successful - update to appropriate status but DON'T send to RabbitMQ
@@ -179,54 +201,74 @@ public class PaymentService {
                         finalStatus, request.getBookingId());
 
                 // Update payment record in database only
-                paymentRecordRepository.findByTransactionId(request.getPaymentIntentId())
-                        .ifPresent(record -> {
-                            record.setStatus(status);
-                            paymentRecordRepository.save(record);
-                            log.info("Payment record updated to PENDING: transactionId={}, reason={}", 
-                                    request.getPaymentIntentId(), finalStatus);
-                        });
+                if (paymentRecordRepository.updateStatus(List.of(request.getPaymentIntentId()), status, LocalDateTime.now()) > 0) {
+                    log.info("Payment record updated to PENDING: transactionId={}, reason={}", 
+                            request.getPaymentIntentId(), finalStatus);
+                }
 
                 // Do NOT publish to RabbitMQ for non-successful payments
                 log.info("Not publishing to RabbitMQ - payment status is not 'succeeded'");
             }
 
-        } catch (StripeException e) {
+        } catch (PaymentGatewayException e) {
             log.error("Error retrieving Payment Intent: {}", e.getMessage(), e);
             
-            // Update payment record to FAILED
-            paymentRecordRepository.findByTransactionId(request.getPaymentIntentId())
-                    .ifPresent(record -> {
-                        record.setStatus("FAILED");
-                        paymentRecordRepository.save(record);
-                        log.info("Payment record marked as FAILED: {}", request.getPaymentIntentId());
-                    });
-            
-            // Send failure message
-            PaymentMessage failureMessage = new PaymentMessage();
-            failureMessage.setBookingId(request.getBookingId());
-            failureMessage.setStatus("FAILED");
-            failureMessage.setTransactionId(request.getPaymentIntentId());
-            failureMessage.setTimestamp(LocalDateTime.now());
-            failureMessage.setMessage("Payment verification failed: " + e.getMessage());
-
-            publishPaymentMessage(failureMessage);
+            transactionTemplate.executeWithoutResult(tx -> {
+                // Send failure message
+                PaymentMessage failureMessage = new PaymentMessage();
+                failureMessage.setBookingId(request.getBookingId());
+                failureMessage.setStatus("FAILED");
+                failureMessage.setTransactionId(request.getPaymentIntentId());
+                failureMessage.setAmount(request.getAmount());
+                failureMessage.setCurrency(request.getCurrency());
+                failureMessage.setTimestamp(LocalDateTime.now());
+                failureMessage.setMessage("Payment verification failed: " + e.getMessage());
+
+                // Update payment record to FAILED; the record also addresses the message, as for SUCCESS
+                PaymentRecord record = paymentRecordRepository.lockByTransactionId(request.getPaymentIntentId()).orElse(null);
+                if (record != null && "SUCCESS".equals(record.getStatus())) {
+                    // Already charged and confirmed; a gateway error on a repeat confirm changes nothing
+                    log.info("Payment already confirmed, not marking FAILED: transactionId={}", request.getPaymentIntentId());
+                    return;
+                }
+                if (record != null) {
+                    record.setStatus("FAILED");
+                    failureMessage.setUserId(record.getUserId());
+                    failureMessage.setEventId(record.getEventId() != null ? record.getEventId() : record.getBookingId());
+                    failureMessage.setCustomerEmail(record.getCustomerEmail());
+                    log.info("Payment record marked as FAILED: {}", request.getPaymentIntentId());
+                }
+
+                paymentOutbox.enqueue(failureMessage);
+            });
         }
     }
 
     /**
-     * Publish payment message to RabbitMQ
-     * @param message Payment message to publish
+     * Set the status of many payment records at once, for reconciliation jobs
+     * Only the records change; no payment messages are published.
+     * SUCCESS records are left alone unless overrideSuccess is set.
+     * @param transactionIds Stripe Payment Intent IDs
+     * @param status New status
+     * @param overrideSuccess Also change records that are already SUCCESS
+     * @return Number of records updated
      */
-    private void publishPaymentMessage(PaymentMessage message) {
-        try {
-            rabbitTemplate.convertAndSend(exchangeName, routingKey, message);
-            log.info("Published payment message to exchange: {}, routing key: {}", exchangeName, routingKey);
-            log.debug("Message details: {}", message);
-        } catch (Exception e) {
-            log.error("Failed to publish payment message to RabbitMQ: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to publish payment message", e);
+    @Transactional
+    public int updatePaymentStatuses(List<String> transactionIds, String status, boolean overrideSuccess) {
+        if (!PAYMENT_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Unknown payment status: " + status);
         }
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        // Bounded IN lists keep each statement well inside driver parameter limits
+        for (int from = 0; from < transactionIds.size(); from += STATUS_UPDATE_CHUNK) {
+            List<String> chunk = transactionIds.subList(from, Math.min(from + STATUS_UPDATE_CHUNK, transactionIds.size()));
+            updated += overrideSuccess || "SUCCESS".equals(status)
+                    ? paymentRecordRepository.updateStatus(chunk, status, now)
+                    : paymentRecordRepository.updateStatusUnlessSucceeded(chunk, status, now);
+        }
+        log.info("Bulk status update to {}: {} of {} payment records updated", status, updated, transactionIds.size());
+        return updated;
     }
 
     /**
@@ -239,13 +281,40 @@ public class PaymentService {
         return paymentRecordRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
 
+    /**
+     * Get one page of payment history for a user, newest first
+     * @param userId User ID
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param size Requested page size (capped at CursorPage.MAX_SIZE)
+     * @return Page of payment records with the cursor for the next page
+     */
+    public CursorPage<PaymentRecord> getUserPaymentHistoryPage(Long userId, String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        Long beforeId = CursorPage.decode(cursor);
+        List<PaymentRecord> rows = paymentRecordRepository.findByUserIdAndIdLessThanOrderByIdDesc(
+                userId, beforeId != null ? beforeId : Long.MAX_VALUE, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, PaymentRecord::getId);
+    }
+
     /**
      * Retrieve Payment Intent details
      * @param paymentIntentId Stripe Payment Intent ID
-     * @return PaymentIntent object
+     * @return Payment intent
+     * @throws PaymentGatewayException if the gateway call fails
      */
-    public PaymentIntent getPaymentIntent(String paymentIntentId) throws StripeException {
+    public GatewayPaymentIntent getPaymentIntent(String paymentIntentId) throws PaymentGatewayException {
         log.info("Retrieving Payment Intent: {}", paymentIntentId);
-        return PaymentIntent.retrieve(paymentIntentId);
+        return paymentGateway.retrieveIntent(paymentIntentId);
+    }
+
+    /**
+     * Cancel a Payment Intent
+     * @param paymentIntentId Stripe Payment Intent ID
+     * @return Cancelled payment intent
+     * @throws PaymentGatewayException if the gateway call fails
+     */
+    public GatewayPaymentIntent cancelPaymentIntent(String paymentIntentId) throws PaymentGatewayException {
+        log.info("Cancelling Payment Intent: {}", paymentIntentId);
+        return paymentGateway.cancelIntent(paymentIntentId);
     }
 }
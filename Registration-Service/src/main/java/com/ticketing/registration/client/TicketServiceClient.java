@@ -9,4 +9,7 @@ public interface TicketServiceClient {
     
     @PostMapping("/api/tickets")
     Object createTicket(@RequestBody Object ticketRequest);
+
+    @PostMapping("/api/tickets/batch")
+    Object createTickets(@RequestBody Object batchRequest);
 }
@@ -1,5 +1,6 @@
 package com.ticketing.registration.controller;
 
+import com.ticketing.registration.dto.CursorPage;
 import com.ticketing.registration.entity.Registration;
 import com.ticketing.registration.service.RegistrationService;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +38,13 @@ public class RegistrationController {
         return ResponseEntity.ok(registrationService.getEventRegistrations(eventId));
     }
 
+    @GetMapping("/event/{eventId}/page")
+    public ResponseEntity<CursorPage<Registration>> getEventRegistrationsPage(@PathVariable Long eventId,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(registrationService.getEventRegistrationsPage(eventId, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Registration> getRegistrationById(@PathVariable Long id) {
         return ResponseEntity.ok(registrationService.getRegistrationById(id));
@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "registrations")
+@Table(name = "registrations", indexes = @Index(name = "idx_registrations_event_id", columnList = "eventId, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
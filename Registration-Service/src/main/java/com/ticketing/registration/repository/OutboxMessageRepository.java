@@ -0,0 +1,25 @@
+package com.ticketing.registration.repository;
+
+import com.ticketing.registration.entity.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // lock.timeout -2 makes Hibernate emit SKIP LOCKED, so relays on other instances take other rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<OutboxMessage> lockDueMessages(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -1,6 +1,7 @@
 package com.ticketing.registration.repository;
 
 import com.ticketing.registration.entity.Registration;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +11,5 @@ import java.util.List;
 public interface RegistrationRepository extends JpaRepository<Registration, Long> {
     List<Registration> findByUserId(Long userId);
     List<Registration> findByEventId(Long eventId);
+    List<Registration> findByEventIdAndIdGreaterThanOrderByIdAsc(Long eventId, Long id, Limit limit);
 }
@@ -0,0 +1,117 @@
+package com.ticketing.registration.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.registration.client.TicketServiceClient;
+import com.ticketing.registration.entity.OutboxMessage;
+import com.ticketing.registration.repository.OutboxMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the registration outbox to Ticket Service.
+ *
+ * Each poll claims a batch of due PENDING rows in a short transaction,
+ * leasing them so other instances skip them, then sends their
+ * ticket-issuance commands with no transaction or row lock held, and finally
+ * records the outcomes. Sent rows are marked SENT; failed sends stay PENDING
+ * and are retried with exponential backoff until max-attempts, then marked
+ * FAILED. Delivery is at-least-once; Ticket Service batch issuance is
+ * idempotent per registration.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    public static final String ISSUE_TICKETS = "ISSUE_TICKETS";
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final TicketServiceClient ticketServiceClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:50}")
+    private int batchSize;
+
+    @Value("${outbox.relay.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${outbox.relay.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.lease-ms:60000}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        List<OutboxMessage> messages = claimDue();
+        if (messages.isEmpty()) {
+            return;
+        }
+        for (OutboxMessage message : messages) {
+            try {
+                dispatch(message);
+                message.setStatus("SENT");
+                message.setSentAt(LocalDateTime.now());
+                message.setLastError(null);
+            } catch (Exception e) {
+                failed(message, e);
+            }
+        }
+        outboxMessageRepository.saveAll(messages);
+    }
+
+    // Attempts are counted at claim time, so a relay that dies mid-send still uses one up
+    private List<OutboxMessage> claimDue() {
+        return transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> due = outboxMessageRepository.lockDueMessages(now, PageRequest.of(0, batchSize));
+            for (OutboxMessage message : due) {
+                message.setAttempts(message.getAttempts() + 1);
+                message.setNextAttemptAt(now.plus(Duration.ofMillis(leaseMs)));
+            }
+            return outboxMessageRepository.saveAll(due);
+        });
+    }
+
+    private void failed(OutboxMessage message, Exception e) {
+        message.setLastError(e.getMessage());
+        if (message.getAttempts() >= maxAttempts) {
+            message.setStatus("FAILED");
+            log.error("Outbox message {} for registration {} failed permanently after {} attempts: {}",
+                message.getId(), message.getAggregateId(), message.getAttempts(), e.getMessage());
+        } else {
+            message.setNextAttemptAt(LocalDateTime.now().plus(backoff(message.getAttempts())));
+            log.warn("Outbox message {} for registration {} failed (attempt {}): {}",
+                message.getId(), message.getAggregateId(), message.getAttempts(), e.getMessage());
+        }
+    }
+
+    private void dispatch(OutboxMessage message) throws Exception {
+        if (!ISSUE_TICKETS.equals(message.getType())) {
+            throw new IllegalStateException("Unknown outbox message type: " + message.getType());
+        }
+        ticketServiceClient.createTickets(objectMapper.readValue(message.getPayload(), PAYLOAD_TYPE));
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+}
@@ -1,54 +1,69 @@
 package com.ticketing.registration.service;
 
-import com.ticketing.registration.client.TicketServiceClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.registration.dto.CursorPage;
+import com.ticketing.registration.entity.OutboxMessage;
 import com.ticketing.registration.entity.Registration;
+import com.ticketing.registration.repository.OutboxMessageRepository;
 import com.ticketing.registration.repository.RegistrationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class RegistrationService {
 
     private final RegistrationRepository registrationRepository;
-    private final TicketServiceClient ticketServiceClient;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ObjectMapper objectMapper;
 
+    // Must not exceed ticket.batch.max-quantity in Ticket Service, or issuance would be refused
+    @Value("${registration.max-tickets:50}")
+    private int maxTickets;
+
+    @Transactional
     public Registration createRegistration(Registration registration) {
+        Integer numberOfTickets = registration.getNumberOfTickets();
+        if (numberOfTickets == null || numberOfTickets <= 0 || numberOfTickets > maxTickets) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "numberOfTickets must be between 1 and " + maxTickets);
+        }
         registration.setRegisteredAt(LocalDateTime.now());
         registration.setStatus("CONFIRMED");
         Registration savedRegistration = registrationRepository.save(registration);
         
-        // Create tickets for each registration
-        try {
-            for (int i = 0; i < savedRegistration.getNumberOfTickets(); i++) {
-                Map<String, Object> ticketRequest = new HashMap<>();
-                ticketRequest.put("ticketNumber", generateTicketNumber());
-                ticketRequest.put("registrationId", savedRegistration.getId());
-                ticketRequest.put("eventId", savedRegistration.getEventId());
-                ticketRequest.put("userId", savedRegistration.getUserId());
-                ticketRequest.put("status", "ACTIVE");
-                ticketRequest.put("price", savedRegistration.getTotalPrice() / savedRegistration.getNumberOfTickets());
-                
-                ticketServiceClient.createTicket(ticketRequest);
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to create tickets: " + e.getMessage());
-            // Don't fail the registration if ticket creation fails
-        }
-        
+        // Queue ticket issuance in the same transaction; OutboxRelay delivers it to Ticket Service
+        Map<String, Object> batchRequest = new HashMap<>();
+        batchRequest.put("registrationId", savedRegistration.getId());
+        batchRequest.put("eventId", savedRegistration.getEventId());
+        batchRequest.put("userId", savedRegistration.getUserId());
+        batchRequest.put("quantity", savedRegistration.getNumberOfTickets());
+        batchRequest.put("price", savedRegistration.getTotalPrice() / savedRegistration.getNumberOfTickets());
+
+        OutboxMessage message = new OutboxMessage();
+        message.setAggregateId(savedRegistration.getId());
+        message.setType(OutboxRelay.ISSUE_TICKETS);
+        message.setPayload(toJson(batchRequest));
+        message.setStatus("PENDING");
+        message.setAttempts(0);
+        message.setCreatedAt(savedRegistration.getRegisteredAt());
+        message.setNextAttemptAt(savedRegistration.getRegisteredAt());
+        outboxMessageRepository.save(message);
+
         return savedRegistration;
     }
     
-    private String generateTicketNumber() {
-        return "TKT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-
     public List<Registration> getUserRegistrations(Long userId) {
         return registrationRepository.findByUserId(userId);
     }
@@ -57,6 +72,14 @@ public class RegistrationService {
         return registrationRepository.findByEventId(eventId);
     }
 
+    public CursorPage<Registration> getEventRegistrationsPage(Long eventId, String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        Long afterId = CursorPage.decode(cursor);
+        List<Registration> rows = registrationRepository.findByEventIdAndIdGreaterThanOrderByIdAsc(
+            eventId, afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, Registration::getId);
+    }
+
     public Registration getRegistrationById(Long id) {
         return registrationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Registration not found"));
@@ -67,4 +90,12 @@ public class RegistrationService {
         registration.setStatus("CANCELLED");
         registrationRepository.save(registration);
     }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox payload", e);
+        }
+    }
 }
@@ -22,6 +22,8 @@ public class CorsConfig {
         config.setMaxAge(3600L);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        // No allowed origins: browsers on other origins cannot call the operator endpoints
+        source.registerCorsConfiguration("/api/tickets/admin/**", new CorsConfiguration());
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
     }
@@ -4,18 +4,34 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * RabbitMQ Configuration for Ticket Service
- * Listens to payment events and creates tickets
+ * Listens to payment events and creates tickets, then announces issued
+ * tickets on ticket_exchange
+ *
+ * Failed messages are republished to retry queues whose TTLs grow per tier;
+ * when a tier's TTL expires the message dead-letters straight back onto
+ * payment_queue. After the last tier, or when a message is rejected outright,
+ * it lands in the parking-lot queue via payment_dlx until an operator replays it.
  */
 @Configuration
 public class RabbitMQConfig {
@@ -24,9 +40,64 @@ public class RabbitMQConfig {
     public static final String PAYMENT_QUEUE = "payment_queue";
     public static final String PAYMENT_ROUTING_KEY = "payment.#";
 
+    public static final String PAYMENT_DLX = "payment_dlx";
+    public static final String PAYMENT_RETRY_EXCHANGE = "payment_retry_exchange";
+    public static final String PARKING_LOT_QUEUE = "payment_queue.parking-lot";
+    public static final String PARKING_LOT_ROUTING_KEY = "parking-lot";
+    public static final String RETRY_COUNT_HEADER = "x-retry-count";
+
+    public static final String TICKET_EXCHANGE = "ticket_exchange";
+    public static final String TICKET_ISSUED_ROUTING_KEY = "ticket.issued";
+
+    // Delay before each retry; message TTL is a queue argument, so each tier is its own queue
+    public static final long[] RETRY_TIER_TTLS_MS = {1_000, 5_000, 30_000, 120_000, 600_000};
+
+    public static String retryQueueName(int tier) {
+        return PAYMENT_QUEUE + ".retry." + tier;
+    }
+
     @Bean
     public Queue paymentQueue() {
-        return new Queue(PAYMENT_QUEUE, true); // durable queue
+        // Arguments must match the payment_queue declaration in Payment Service
+        return QueueBuilder.durable(PAYMENT_QUEUE)
+                .deadLetterExchange(PAYMENT_DLX)
+                .deadLetterRoutingKey(PARKING_LOT_ROUTING_KEY)
+                .build();
+    }
+
+    @Bean
+    public DirectExchange paymentDeadLetterExchange() {
+        return new DirectExchange(PAYMENT_DLX);
+    }
+
+    @Bean
+    public Queue parkingLotQueue() {
+        return QueueBuilder.durable(PARKING_LOT_QUEUE).build();
+    }
+
+    @Bean
+    public Binding parkingLotBinding() {
+        return BindingBuilder
+                .bind(parkingLotQueue())
+                .to(paymentDeadLetterExchange())
+                .with(PARKING_LOT_ROUTING_KEY);
+    }
+
+    @Bean
+    public Declarables paymentRetryTopology() {
+        DirectExchange retryExchange = new DirectExchange(PAYMENT_RETRY_EXCHANGE);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(retryExchange);
+        for (int tier = 1; tier <= RETRY_TIER_TTLS_MS.length; tier++) {
+            Queue retryQueue = QueueBuilder.durable(retryQueueName(tier))
+                    .ttl((int) RETRY_TIER_TTLS_MS[tier - 1])
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(PAYMENT_QUEUE)
+                    .build();
+            declarables.add(retryQueue);
+            declarables.add(BindingBuilder.bind(retryQueue).to(retryExchange).with(retryQueueName(tier)));
+        }
+        return new Declarables(declarables);
     }
 
     @Bean
@@ -42,6 +113,11 @@ public class RabbitMQConfig {
                 .with(PAYMENT_ROUTING_KEY);
     }
 
+    @Bean
+    public TopicExchange ticketExchange() {
+        return new TopicExchange(TICKET_EXCHANGE);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         ObjectMapper objectMapper = new ObjectMapper();
@@ -49,10 +125,51 @@ public class RabbitMQConfig {
         return new Jackson2JsonMessageConverter(objectMapper);
     }
 
+    /**
+     * Listener container for payment_queue: several consumers, a deep prefetch,
+     * and batch delivery so one listener call (and one DB transaction) covers
+     * many messages. Acks go out only after the listener returns, i.e. after commit.
+     */
     @Bean
+    public SimpleRabbitListenerContainerFactory paymentListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${rabbitmq.listener.payment.concurrency:4}") int concurrency,
+            @Value("${rabbitmq.listener.payment.max-concurrency:16}") int maxConcurrency,
+            @Value("${rabbitmq.listener.payment.prefetch:250}") int prefetch,
+            @Value("${rabbitmq.listener.payment.batch-size:100}") int batchSize,
+            @Value("${rabbitmq.listener.payment.receive-timeout-ms:100}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter());
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setDeBatchingEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        // Never requeue in place: anything the listener cannot route to a retry tier goes to the parking lot
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    @Bean
+    @Primary
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
         return template;
     }
+
+    /**
+     * Template on transactional channels, for moving messages between queues
+     * without a window where they exist in neither
+     */
+    @Bean
+    public RabbitTemplate transactedRabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setChannelTransacted(true);
+        return template;
+    }
 }
@@ -0,0 +1,60 @@
+package com.ticketing.ticket.controller;
+
+import com.ticketing.ticket.listener.PaymentRetryRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+/**
+ * Operator endpoints for the payment parking lot. Every call needs the
+ * X-Admin-Key header to match ticket.admin.api-key; while no key is
+ * configured the endpoints are disabled. Not open to cross-origin callers.
+ */
+@RestController
+@RequestMapping("/api/tickets/admin/parking-lot")
+@RequiredArgsConstructor
+public class PaymentAdminController {
+
+    public static final String ADMIN_KEY_HEADER = "X-Admin-Key";
+
+    private static final int MAX_REPLAY = 1000;
+
+    private final PaymentRetryRouter paymentRetryRouter;
+
+    @Value("${ticket.admin.api-key:}")
+    private String adminApiKey;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Integer>> getParkedCount(
+            @RequestHeader(value = ADMIN_KEY_HEADER, required = false) String adminKey) {
+        if (!authorized(adminKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(Map.of("parked", paymentRetryRouter.parkedCount()));
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Integer>> replayParked(
+            @RequestHeader(value = ADMIN_KEY_HEADER, required = false) String adminKey,
+            @RequestParam(defaultValue = "100") int max) {
+        if (!authorized(adminKey)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        int replayed = paymentRetryRouter.replayParked(Math.min(Math.max(max, 0), MAX_REPLAY));
+        return ResponseEntity.ok(Map.of("replayed", replayed));
+    }
+
+    private boolean authorized(String adminKey) {
+        if (adminApiKey == null || adminApiKey.isEmpty() || adminKey == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminApiKey.getBytes(StandardCharsets.UTF_8),
+                adminKey.getBytes(StandardCharsets.UTF_8));
+    }
+}
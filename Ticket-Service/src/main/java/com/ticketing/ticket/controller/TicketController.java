@@ -1,12 +1,24 @@
 package com.ticketing.ticket.controller;
 
+import com.ticketing.ticket.dto.CursorPage;
+import com.ticketing.ticket.dto.TicketBatchRequest;
+import com.ticketing.ticket.dto.TicketSummary;
 import com.ticketing.ticket.entity.Ticket;
+import com.ticketing.ticket.qr.QrCodeFormat;
+import com.ticketing.ticket.qr.QrCodeRenderer;
 import com.ticketing.ticket.service.TicketService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/tickets")
@@ -21,23 +33,68 @@ public class TicketController {
         return ResponseEntity.ok(ticketService.createTicket(ticket));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<TicketSummary>> createTickets(@RequestBody TicketBatchRequest request) {
+        return ResponseEntity.ok(ticketService.createTickets(request));
+    }
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Ticket>> getUserTickets(@PathVariable Long userId) {
+    public ResponseEntity<List<TicketSummary>> getUserTickets(@PathVariable Long userId) {
         return ResponseEntity.ok(ticketService.getUserTickets(userId));
     }
 
     @GetMapping("/event/{eventId}")
-    public ResponseEntity<List<Ticket>> getEventTickets(@PathVariable Long eventId) {
+    public ResponseEntity<List<TicketSummary>> getEventTickets(@PathVariable Long eventId) {
         return ResponseEntity.ok(ticketService.getEventTickets(eventId));
     }
 
+    @GetMapping("/event/{eventId}/page")
+    public ResponseEntity<CursorPage<TicketSummary>> getEventTicketsPage(@PathVariable Long eventId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ticketService.getEventTicketsPage(eventId, cursor, size));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Ticket> getTicketById(@PathVariable Long id) {
+    public ResponseEntity<TicketSummary> getTicketById(@PathVariable Long id) {
         return ResponseEntity.ok(ticketService.getTicketById(id));
     }
 
+    @GetMapping("/{id}/qr")
+    public ResponseEntity<?> getTicketQRCode(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "png") String format,
+                                             @RequestParam(required = false) Integer size,
+                                             WebRequest request) {
+        QrCodeFormat qrFormat;
+        try {
+            qrFormat = QrCodeFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown QR format: " + format + " (use png, svg or matrix)");
+        }
+        int pixels = QrCodeRenderer.clampSize(size);
+        // A ticket's QR content never changes once issued, so id + rendering options is a stable validator
+        String eTag = "\"qr-" + id + "-" + qrFormat.name().toLowerCase(Locale.ROOT) + "-" + pixels + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(eTag)
+            .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate().immutable());
+        switch (qrFormat) {
+            case SVG:
+                return response.contentType(MediaType.valueOf("image/svg+xml"))
+                    .body(ticketService.getQRCodeSvg(id, pixels));
+            case MATRIX:
+                return response.contentType(MediaType.APPLICATION_JSON)
+                    .body(ticketService.getQRCodeMatrix(id));
+            default:
+                return response.contentType(MediaType.IMAGE_PNG)
+                    .body(ticketService.getQRCodePng(id, pixels));
+        }
+    }
+
     @GetMapping("/validate/{ticketNumber}")
-    public ResponseEntity<Ticket> getTicketByNumber(@PathVariable String ticketNumber) {
+    public ResponseEntity<TicketSummary> getTicketByNumber(@PathVariable String ticketNumber) {
         return ResponseEntity.ok(ticketService.getTicketByNumber(ticketNumber));
     }
 
@@ -37,4 +37,6 @@ public class PaymentMessage implements Serializable {
     private LocalDateTime timestamp;
     
     private String message;
+    
+    private String customerEmail; // Receipt address, if the customer gave one
 }
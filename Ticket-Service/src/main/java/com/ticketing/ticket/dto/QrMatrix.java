@@ -0,0 +1,19 @@
+package com.ticketing.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Raw QR module grid; each row is a string of '1' (dark) and '0' (light).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QrMatrix {
+    private int width;
+    private int height;
+    private List<String> rows;
+}
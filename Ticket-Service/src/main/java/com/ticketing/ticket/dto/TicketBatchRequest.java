@@ -0,0 +1,16 @@
+package com.ticketing.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketBatchRequest {
+    private Long registrationId;
+    private Long eventId;
+    private Long userId;
+    private Integer quantity;
+    private Double price; // per ticket
+}
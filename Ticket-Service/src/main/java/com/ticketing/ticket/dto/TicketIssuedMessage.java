@@ -0,0 +1,38 @@
+package com.ticketing.ticket.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Ticket Issued Message DTO
+ * Published to ticket_exchange once a ticket has been committed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketIssuedMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long ticketId;
+
+    private String ticketNumber;
+
+    private Long registrationId;
+
+    private Long eventId;
+
+    private Long userId;
+
+    private Double price;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime issuedAt;
+
+    private String customerEmail;
+}
@@ -0,0 +1,30 @@
+package com.ticketing.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ticket listing row without the QR payload; the image is served
+ * separately from {@link #getQrCodeUrl()}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSummary {
+    private Long id;
+    private String ticketNumber;
+    private Long registrationId;
+    private Long eventId;
+    private Long userId;
+    private String status;
+    private LocalDateTime issuedAt;
+    private String seatNumber;
+    private Double price;
+
+    public String getQrCodeUrl() {
+        return "/api/tickets/" + id + "/qr";
+    }
+}
@@ -0,0 +1,26 @@
+package com.ticketing.ticket.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "processed_payment_messages")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedPaymentMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String transactionId;
+
+    private Long ticketId;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+}
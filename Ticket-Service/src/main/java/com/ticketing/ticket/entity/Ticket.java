@@ -1,5 +1,6 @@
 package com.ticketing.ticket.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,7 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+    @Index(name = "idx_tickets_event_id", columnList = "eventId, id"),
+    @Index(name = "idx_tickets_registration_id", columnList = "registrationId")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,6 +38,9 @@ public class Ticket {
     @Column(nullable = false)
     private LocalDateTime issuedAt;
 
+    // Legacy payload column; QR images are rendered on demand from ticketNumber, so never load or serialize it
+    @JsonIgnore
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
     private String qrCode;
 
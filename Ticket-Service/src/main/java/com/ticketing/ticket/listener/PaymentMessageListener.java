@@ -1,56 +1,176 @@
 package com.ticketing.ticket.listener;
 
+import com.ticketing.ticket.config.RabbitMQConfig;
 import com.ticketing.ticket.dto.PaymentMessage;
 import com.ticketing.ticket.entity.Ticket;
+import com.ticketing.ticket.service.ProcessedMessageLedger;
+import com.ticketing.ticket.service.TicketEventPublisher;
 import com.ticketing.ticket.service.TicketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * RabbitMQ Message Listener for Payment Events
- * Automatically creates tickets when payment is confirmed
+ * Automatically creates tickets when payment is confirmed.
+ * Messages arrive in batches; each batch is written in one transaction and
+ * acknowledged after it commits. Messages that keep failing are handed to
+ * {@link PaymentRetryRouter} rather than requeued.
+ *
+ * Every ticket is recorded in {@link ProcessedMessageLedger} under the
+ * payment's transaction id, or "booking:&lt;bookingId&gt;" when the message has
+ * none, so a redelivery or a per-message re-run of a failed batch never
+ * issues it twice. Successful payments with neither id are parked.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentMessageListener {
 
+    private static final String UNKEYED_PAYMENT = "Successful payment has neither transactionId nor bookingId";
+
     private final TicketService ticketService;
+    private final ProcessedMessageLedger processedMessageLedger;
+    private final PaymentRetryRouter retryRouter;
+    private final TicketEventPublisher ticketEventPublisher;
+
+    @RabbitListener(queues = "payment_queue", containerFactory = "paymentListenerContainerFactory")
+    public void handlePaymentMessages(List<Message<PaymentMessage>> messages) {
+        log.info("📬 Received {} payment messages", messages.size());
+
+        List<Message<PaymentMessage>> keyed = new ArrayList<>(messages.size());
+        List<PaymentMessage> payloads = new ArrayList<>(messages.size());
+        for (Message<PaymentMessage> message : messages) {
+            PaymentMessage payload = message.getPayload();
+            if ("SUCCESS".equals(payload.getStatus()) && idempotencyKey(payload) == null) {
+                // Nothing to deduplicate it by, so issuing a ticket could repeat on every redelivery
+                retryRouter.park(payload, UNKEYED_PAYMENT);
+                continue;
+            }
+            keyed.add(message);
+            payloads.add(payload);
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
 
-    @RabbitListener(queues = "payment_queue")
-    public void handlePaymentMessage(PaymentMessage message) {
-        log.info("📬 Received payment message: {}", message);
-        
         try {
-            if ("SUCCESS".equals(message.getStatus())) {
-                // Create ticket for successful payment
-                Ticket ticket = new Ticket();
-                ticket.setTicketNumber(generateTicketNumber());
-                ticket.setRegistrationId(message.getBookingId()); // Use bookingId as registrationId
-                ticket.setEventId(message.getEventId() != null ? message.getEventId() : extractEventIdFromBooking(message.getBookingId())); // Use eventId from message
-                ticket.setUserId(message.getUserId() != null ? message.getUserId() : extractUserIdFromBooking(message.getBookingId())); // Use userId from message
-                ticket.setStatus("CONFIRMED");
-                ticket.setIssuedAt(LocalDateTime.now());
-                ticket.setPrice(message.getAmount());
-                ticket.setQrCode(message.getTransactionId()); // Use transaction ID in QR
-                
-                Ticket createdTicket = ticketService.createTicket(ticket);
-                log.info("✅ Ticket created successfully: ticketNumber={}, userId={}, eventId={}", 
-                        createdTicket.getTicketNumber(), createdTicket.getUserId(), createdTicket.getEventId());
-                
-            } else {
-                log.warn("⚠️ Payment not successful. Status: {}", message.getStatus());
+            processPayments(payloads);
+        } catch (Exception e) {
+            // Find the message(s) that broke the batch; the rest go through on their own
+            log.warn("⚠️ Payment batch failed, retrying messages one at a time: {}", e.getMessage());
+            for (Message<PaymentMessage> message : keyed) {
+                processPaymentOrRetry(message);
             }
-            
+        }
+    }
+
+    private void processPaymentOrRetry(Message<PaymentMessage> message) {
+        try {
+            processPayments(List.of(message.getPayload()));
         } catch (Exception e) {
             log.error("❌ Failed to process payment message: {}", e.getMessage(), e);
-            throw e; // Rethrow to trigger RabbitMQ retry
+            // Hand off to a delayed retry tier instead of requeueing in place
+            retryRouter.retryOrPark(message.getPayload(),
+                    message.getHeaders().get(RabbitMQConfig.RETRY_COUNT_HEADER, Integer.class), e);
+        }
+    }
+
+    private void processPayments(List<PaymentMessage> messages) {
+        // Keep the first message per idempotency key; later copies in the same batch are duplicates
+        Map<String, PaymentMessage> byTransactionId = new LinkedHashMap<>();
+        for (PaymentMessage message : messages) {
+            if (!"SUCCESS".equals(message.getStatus())) {
+                log.warn("⚠️ Payment not successful. Status: {}", message.getStatus());
+            } else {
+                byTransactionId.putIfAbsent(idempotencyKey(message), message);
+            }
+        }
+
+        Set<String> processed = processedMessageLedger.findProcessed(byTransactionId.keySet());
+        if (!processed.isEmpty()) {
+            log.info("🔁 Ignoring {} duplicate payment messages", processed.size());
+            byTransactionId.keySet().removeAll(processed);
         }
+
+        if (!byTransactionId.isEmpty()) {
+            createTicketsForBatch(byTransactionId);
+        }
+    }
+
+    private void createTicketsForBatch(Map<String, PaymentMessage> byTransactionId) {
+        List<String> transactionIds = new ArrayList<>(byTransactionId.keySet());
+        List<Ticket> tickets = new ArrayList<>(transactionIds.size());
+        List<String> customerEmails = new ArrayList<>(transactionIds.size());
+        for (PaymentMessage message : byTransactionId.values()) {
+            tickets.add(toTicket(message));
+            customerEmails.add(message.getCustomerEmail());
+        }
+
+        try {
+            List<Ticket> created = ticketService.createTicketsForPayments(tickets, transactionIds);
+            transactionIds.forEach(processedMessageLedger::remember);
+            log.info("✅ Created {} tickets from payment batch", created.size());
+            ticketEventPublisher.publishIssued(created, customerEmails);
+        } catch (DataIntegrityViolationException e) {
+            // Another consumer recorded one of these transactions first; the batch rolled
+            // back, so redo it one message at a time and skip whichever ones are duplicates
+            log.info("🔁 Payment batch overlapped with another consumer, retrying per message");
+            for (PaymentMessage message : byTransactionId.values()) {
+                createTicketForMessage(message);
+            }
+        }
+    }
+
+    private void createTicketForMessage(PaymentMessage message) {
+        String transactionId = idempotencyKey(message);
+        if (processedMessageLedger.isProcessed(transactionId)) {
+            log.info("🔁 Duplicate payment message ignored: transactionId={}", transactionId);
+            return;
+        }
+        try {
+            Ticket createdTicket = ticketService.createTicketForPayment(toTicket(message), transactionId);
+            processedMessageLedger.remember(transactionId);
+            ticketEventPublisher.publishIssued(createdTicket, message.getCustomerEmail());
+            log.info("✅ Ticket created successfully: ticketNumber={}, userId={}, eventId={}",
+                    createdTicket.getTicketNumber(), createdTicket.getUserId(), createdTicket.getEventId());
+        } catch (DataIntegrityViolationException e) {
+            if (!processedMessageLedger.isProcessed(transactionId)) {
+                throw e;
+            }
+            log.info("🔁 Duplicate payment message ignored: transactionId={}", transactionId);
+        }
+    }
+
+    // Ledger key: the transaction id, or the booking for messages sent without one
+    private static String idempotencyKey(PaymentMessage message) {
+        if (message.getTransactionId() != null) {
+            return message.getTransactionId();
+        }
+        return message.getBookingId() != null ? "booking:" + message.getBookingId() : null;
+    }
+
+    private Ticket toTicket(PaymentMessage message) {
+        Ticket ticket = new Ticket();
+        ticket.setTicketNumber(generateTicketNumber());
+        ticket.setRegistrationId(message.getBookingId()); // Use bookingId as registrationId
+        ticket.setEventId(message.getEventId() != null ? message.getEventId() : extractEventIdFromBooking(message.getBookingId())); // Use eventId from message
+        ticket.setUserId(message.getUserId() != null ? message.getUserId() : extractUserIdFromBooking(message.getBookingId())); // Use userId from message
+        ticket.setStatus("CONFIRMED");
+        ticket.setIssuedAt(LocalDateTime.now());
+        ticket.setPrice(message.getAmount());
+        return ticket;
     }
     
     private String generateTicketNumber() {
@@ -0,0 +1,124 @@
+package com.ticketing.ticket.listener;
+
+import com.ticketing.ticket.config.RabbitMQConfig;
+import com.ticketing.ticket.dto.PaymentMessage;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Moves failed payment messages through the retry tiers and into the
+ * parking lot, and replays parked messages on request.
+ */
+@Component
+@Slf4j
+public class PaymentRetryRouter {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitTemplate transactedRabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+
+    public PaymentRetryRouter(RabbitTemplate rabbitTemplate,
+                              @Qualifier("transactedRabbitTemplate") RabbitTemplate transactedRabbitTemplate,
+                              AmqpAdmin amqpAdmin) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactedRabbitTemplate = transactedRabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+    }
+
+    public void retryOrPark(PaymentMessage payload, Integer retryCount, Exception cause) {
+        int attempt = retryCount != null ? retryCount : 0;
+        if (attempt < RabbitMQConfig.RETRY_TIER_TTLS_MS.length) {
+            int tier = attempt + 1;
+            rabbitTemplate.convertAndSend(RabbitMQConfig.PAYMENT_RETRY_EXCHANGE, RabbitMQConfig.retryQueueName(tier),
+                    payload, message -> {
+                        message.getMessageProperties().setHeader(RabbitMQConfig.RETRY_COUNT_HEADER, tier);
+                        return message;
+                    });
+            log.warn("🔁 Payment message scheduled for retry {} in {} ms: transactionId={}, cause={}",
+                    tier, RabbitMQConfig.RETRY_TIER_TTLS_MS[attempt], payload.getTransactionId(), cause.getMessage());
+        } else {
+            sendToParkingLot(payload, attempt, String.valueOf(cause.getMessage()));
+            log.error("🅿️ Payment message parked after {} retries: transactionId={}, cause={}",
+                    attempt, payload.getTransactionId(), cause.getMessage());
+        }
+    }
+
+    /**
+     * Parks a message that retrying cannot fix, skipping the retry tiers.
+     */
+    public void park(PaymentMessage payload, String reason) {
+        sendToParkingLot(payload, 0, reason);
+        log.error("🅿️ Payment message parked: bookingId={}, reason={}", payload.getBookingId(), reason);
+    }
+
+    private void sendToParkingLot(PaymentMessage payload, int retryCount, String reason) {
+        rabbitTemplate.convertAndSend(RabbitMQConfig.PAYMENT_DLX, RabbitMQConfig.PARKING_LOT_ROUTING_KEY,
+                payload, message -> {
+                    message.getMessageProperties().setHeader(RabbitMQConfig.RETRY_COUNT_HEADER, retryCount);
+                    message.getMessageProperties().setHeader("x-exception-message", reason);
+                    return message;
+                });
+    }
+
+    public int parkedCount() {
+        Properties properties = amqpAdmin.getQueueProperties(RabbitMQConfig.PARKING_LOT_QUEUE);
+        if (properties == null) {
+            return 0;
+        }
+        Object count = properties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT);
+        return count instanceof Number ? ((Number) count).intValue() : 0;
+    }
+
+    /**
+     * Moves up to {@code max} parked messages back onto payment_queue with a fresh retry budget.
+     * Each move is one channel transaction (get, publish, ack), so a parked message is only
+     * removed once its copy is on payment_queue; a failure part way leaves it parked.
+     */
+    public int replayParked(int max) {
+        Integer replayed = transactedRabbitTemplate.execute(channel -> {
+            int moved = 0;
+            while (moved < max) {
+                GetResponse parked = channel.basicGet(RabbitMQConfig.PARKING_LOT_QUEUE, false);
+                if (parked == null) {
+                    break;
+                }
+                Map<String, Object> headers = parked.getProps().getHeaders() != null
+                        ? new HashMap<>(parked.getProps().getHeaders())
+                        : new HashMap<>();
+                headers.remove(RabbitMQConfig.RETRY_COUNT_HEADER);
+                headers.remove("x-exception-message");
+                headers.remove("x-death");
+                AMQP.BasicProperties properties = parked.getProps().builder().headers(headers).build();
+
+                long deliveryTag = parked.getEnvelope().getDeliveryTag();
+                try {
+                    channel.basicPublish("", RabbitMQConfig.PAYMENT_QUEUE, properties, parked.getBody());
+                    channel.basicAck(deliveryTag, false);
+                    channel.txCommit();
+                } catch (Exception e) {
+                    // Drop the uncommitted publish and hand the message back to the parking lot now,
+                    // rather than when this cached channel is eventually closed
+                    channel.txRollback();
+                    channel.basicReject(deliveryTag, true);
+                    channel.txCommit();
+                    throw e;
+                }
+                moved++;
+            }
+            return moved;
+        });
+        int count = replayed != null ? replayed : 0;
+        log.info("▶️ Replayed {} parked payment messages", count);
+        return count;
+    }
+}
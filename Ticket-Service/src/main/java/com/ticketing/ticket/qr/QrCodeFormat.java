@@ -0,0 +1,7 @@
+package com.ticketing.ticket.qr;
+
+public enum QrCodeFormat {
+    PNG,
+    SVG,
+    MATRIX
+}
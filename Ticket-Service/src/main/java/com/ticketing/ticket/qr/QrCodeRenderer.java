@@ -0,0 +1,168 @@
+package com.ticketing.ticket.qr;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.ticketing.ticket.dto.QrMatrix;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Renders ticket QR codes on read instead of at issuance.
+ *
+ * Encoders and output buffers are reused per thread, and encoded PNG/SVG
+ * bytes are kept in an LRU keyed by content, size and format, so a ticket
+ * viewed repeatedly is only encoded once. The LRU is bounded by entry count
+ * and by total bytes, since a 1024px PNG costs far more than a 64px one.
+ */
+@Component
+public class QrCodeRenderer {
+
+    public static final int DEFAULT_SIZE = 200;
+    public static final int MIN_SIZE = 64;
+    public static final int MAX_SIZE = 1024;
+
+    private static final ThreadLocal<QRCodeWriter> WRITER = ThreadLocal.withInitial(QRCodeWriter::new);
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER =
+        ThreadLocal.withInitial(() -> new ByteArrayOutputStream(2048));
+
+    // Access-ordered; guarded by its own monitor
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private final int maxEntries;
+    private final long maxBytes;
+    private long cachedBytes;
+
+    public QrCodeRenderer(@Value("${qr.cache.max-entries:10000}") int maxEntries,
+                          @Value("${qr.cache.max-bytes:67108864}") long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public byte[] renderPng(String text, int size) {
+        return cached(cacheKey(QrCodeFormat.PNG, text, size), () -> {
+            BitMatrix matrix = encode(text, size);
+            ByteArrayOutputStream buffer = BUFFER.get();
+            buffer.reset();
+            try {
+                MatrixToImageWriter.writeToStream(matrix, "PNG", buffer);
+            } catch (IOException e) {
+                throw new RuntimeException("Error generating QR code", e);
+            }
+            return buffer.toByteArray();
+        });
+    }
+
+    public byte[] renderSvg(String text, int size) {
+        return cached(cacheKey(QrCodeFormat.SVG, text, size), () -> {
+            BitMatrix matrix = encode(text, size);
+            int width = matrix.getWidth();
+            int height = matrix.getHeight();
+            StringBuilder svg = new StringBuilder(4096);
+            svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+                .append("\" height=\"").append(height)
+                .append("\" viewBox=\"0 0 ").append(width).append(' ').append(height)
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>")
+                .append("<path fill=\"#000\" d=\"");
+            // One horizontal segment per run of dark pixels keeps the path compact
+            for (int y = 0; y < height; y++) {
+                int x = 0;
+                while (x < width) {
+                    if (!matrix.get(x, y)) {
+                        x++;
+                        continue;
+                    }
+                    int start = x;
+                    while (x < width && matrix.get(x, y)) {
+                        x++;
+                    }
+                    svg.append('M').append(start).append(' ').append(y)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+                }
+            }
+            svg.append("\"/></svg>");
+            return svg.toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Module-level matrix: one cell per QR module, quiet zone included.
+     */
+    public QrMatrix renderMatrix(String text) {
+        BitMatrix matrix = encode(text, 0);
+        List<String> rows = new ArrayList<>(matrix.getHeight());
+        char[] row = new char[matrix.getWidth()];
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                row[x] = matrix.get(x, y) ? '1' : '0';
+            }
+            rows.add(new String(row));
+        }
+        return new QrMatrix(matrix.getWidth(), matrix.getHeight(), rows);
+    }
+
+    public static int clampSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(MIN_SIZE, Math.min(size, MAX_SIZE));
+    }
+
+    // Rendering happens outside the map lock; a concurrent miss just renders twice
+    private byte[] cached(String key, Supplier<byte[]> renderer) {
+        byte[] bytes;
+        synchronized (cache) {
+            bytes = cache.get(key);
+        }
+        if (bytes == null) {
+            bytes = renderer.get();
+            store(key, bytes);
+        }
+        return bytes;
+    }
+
+    private void store(String key, byte[] bytes) {
+        long cost = weight(key, bytes);
+        if (cost > maxBytes) {
+            return;
+        }
+        synchronized (cache) {
+            byte[] previous = cache.put(key, bytes);
+            cachedBytes += cost - (previous != null ? weight(key, previous) : 0);
+            Iterator<Map.Entry<String, byte[]>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > maxBytes || cache.size() > maxEntries) {
+                Map.Entry<String, byte[]> entry = eldest.next();
+                cachedBytes -= weight(entry.getKey(), entry.getValue());
+                eldest.remove();
+            }
+        }
+    }
+
+    // Key characters count too: the key carries the ticket's full QR content
+    private static long weight(String key, byte[] bytes) {
+        return bytes.length + 2L * key.length();
+    }
+
+    private BitMatrix encode(String text, int size) {
+        try {
+            return WRITER.get().encode(text, BarcodeFormat.QR_CODE, size, size);
+        } catch (WriterException e) {
+            throw new RuntimeException("Error generating QR code", e);
+        }
+    }
+
+    private static String cacheKey(QrCodeFormat format, String text, int size) {
+        return format.name() + ':' + size + ':' + text;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ticketing.ticket.repository;
+
+import com.ticketing.ticket.entity.ProcessedPaymentMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProcessedPaymentMessageRepository extends JpaRepository<ProcessedPaymentMessage, Long> {
+    boolean existsByTransactionId(String transactionId);
+
+    @Query("SELECT m.transactionId FROM ProcessedPaymentMessage m WHERE m.transactionId IN :transactionIds")
+    List<String> findTransactionIdsIn(@Param("transactionIds") Collection<String> transactionIds);
+}
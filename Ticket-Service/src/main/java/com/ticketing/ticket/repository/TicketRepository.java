@@ -1,15 +1,49 @@
 package com.ticketing.ticket.repository;
 
+import com.ticketing.ticket.dto.TicketSummary;
 import com.ticketing.ticket.entity.Ticket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketRepositoryCustom {
+    String SUMMARY_SELECT = "SELECT new com.ticketing.ticket.dto.TicketSummary(t.id, t.ticketNumber, " +
+        "t.registrationId, t.eventId, t.userId, t.status, t.issuedAt, t.seatNumber, t.price) FROM Ticket t ";
+
     List<Ticket> findByUserId(Long userId);
     List<Ticket> findByEventId(Long eventId);
     Optional<Ticket> findByTicketNumber(String ticketNumber);
+
+    @Query(SUMMARY_SELECT + "WHERE t.id = :id")
+    Optional<TicketSummary> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE t.ticketNumber = :ticketNumber")
+    Optional<TicketSummary> findSummaryByTicketNumber(@Param("ticketNumber") String ticketNumber);
+
+    @Query(SUMMARY_SELECT + "WHERE t.registrationId = :registrationId ORDER BY t.id")
+    List<TicketSummary> findSummariesByRegistrationId(@Param("registrationId") Long registrationId);
+
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId ORDER BY t.id")
+    List<TicketSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE t.eventId = :eventId ORDER BY t.id")
+    List<TicketSummary> findSummariesByEventId(@Param("eventId") Long eventId);
+
+    @Query(SUMMARY_SELECT + "WHERE t.eventId = :eventId AND t.id > :afterId ORDER BY t.id")
+    List<TicketSummary> findSummariesByEventIdAfter(@Param("eventId") Long eventId,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    @Query("SELECT t.ticketNumber FROM Ticket t WHERE t.id = :id")
+    Optional<String> findTicketNumberById(@Param("id") Long id);
+
+    // Transaction-scoped advisory lock: serializes ticket top-ups for one registration until commit
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:registrationId)) AS locked", nativeQuery = true)
+    Integer lockRegistration(@Param("registrationId") Long registrationId);
 }
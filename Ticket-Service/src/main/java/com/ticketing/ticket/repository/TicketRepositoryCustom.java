@@ -0,0 +1,13 @@
+package com.ticketing.ticket.repository;
+
+import com.ticketing.ticket.entity.Ticket;
+
+import java.util.List;
+
+public interface TicketRepositoryCustom {
+
+    /**
+     * Inserts all tickets in a single JDBC batch and populates their generated ids.
+     */
+    List<Ticket> insertBatch(List<Ticket> tickets);
+}
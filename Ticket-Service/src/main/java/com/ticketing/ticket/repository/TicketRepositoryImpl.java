@@ -0,0 +1,67 @@
+package com.ticketing.ticket.repository;
+
+import com.ticketing.ticket.entity.Ticket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO tickets (ticket_number, registration_id, event_id, user_id, status, issued_at, seat_number, price) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public List<Ticket> insertBatch(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return tickets;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Ticket ticket = tickets.get(i);
+                    ps.setString(1, ticket.getTicketNumber());
+                    ps.setLong(2, ticket.getRegistrationId());
+                    ps.setLong(3, ticket.getEventId());
+                    ps.setLong(4, ticket.getUserId());
+                    ps.setString(5, ticket.getStatus());
+                    ps.setTimestamp(6, Timestamp.valueOf(ticket.getIssuedAt()));
+                    ps.setString(7, ticket.getSeatNumber());
+                    if (ticket.getPrice() != null) {
+                        ps.setDouble(8, ticket.getPrice());
+                    } else {
+                        ps.setNull(8, Types.DOUBLE);
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return tickets.size();
+                }
+            },
+            keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < tickets.size() && i < keys.size(); i++) {
+            tickets.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+        return tickets;
+    }
+}
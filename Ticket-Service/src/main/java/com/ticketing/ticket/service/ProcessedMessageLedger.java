@@ -0,0 +1,105 @@
+package com.ticketing.ticket.service;
+
+import com.ticketing.ticket.entity.ProcessedPaymentMessage;
+import com.ticketing.ticket.repository.ProcessedPaymentMessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Record of payment transactions that already produced a ticket.
+ *
+ * A bounded LRU of recent transaction ids answers most redeliveries without
+ * a query; the unique constraint on processed_payment_messages.transactionId
+ * is the source of truth and catches concurrent duplicates.
+ */
+@Component
+public class ProcessedMessageLedger {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO processed_payment_messages (transaction_id, ticket_id, processed_at) VALUES (?, ?, ?)";
+
+    private final ProcessedPaymentMessageRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<String> recent;
+
+    public ProcessedMessageLedger(ProcessedPaymentMessageRepository repository,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${payment.ledger.cache-size:100000}") int cacheSize) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.recent = Collections.newSetFromMap(Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        }));
+    }
+
+    public boolean isProcessed(String transactionId) {
+        if (recent.contains(transactionId)) {
+            return true;
+        }
+        if (repository.existsByTransactionId(transactionId)) {
+            recent.add(transactionId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the subset of the given transaction ids that were already processed.
+     */
+    public Set<String> findProcessed(Collection<String> transactionIds) {
+        Set<String> processed = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String transactionId : transactionIds) {
+            if (recent.contains(transactionId)) {
+                processed.add(transactionId);
+            } else {
+                unknown.add(transactionId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            for (String transactionId : repository.findTransactionIdsIn(unknown)) {
+                processed.add(transactionId);
+                recent.add(transactionId);
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Inserts ledger rows in one JDBC batch; call inside the transaction that creates the tickets.
+     */
+    public void recordAll(List<String> transactionIds, List<Long> ticketIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(transactionIds.size());
+        for (int i = 0; i < transactionIds.size(); i++) {
+            rows.add(new Object[] {transactionIds.get(i), ticketIds.get(i), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Inserts the ledger row; call inside the transaction that creates the ticket.
+     */
+    public void record(String transactionId, Long ticketId) {
+        repository.save(new ProcessedPaymentMessage(null, transactionId, ticketId, LocalDateTime.now()));
+    }
+
+    public void remember(String transactionId) {
+        recent.add(transactionId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ticketing.ticket.service;
+
+import com.ticketing.ticket.config.RabbitMQConfig;
+import com.ticketing.ticket.dto.TicketIssuedMessage;
+import com.ticketing.ticket.entity.Ticket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Publishes ticket-issued events to ticket_exchange for Notification Service.
+ * Called after the tickets have committed. Publishing is best effort: a failure
+ * is logged and never undoes or retries ticket creation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public void publishIssued(Ticket ticket, String customerEmail) {
+        publishIssued(List.of(ticket), Collections.singletonList(customerEmail));
+    }
+
+    /**
+     * @param tickets Committed tickets
+     * @param customerEmails Email per ticket, same order; null when unknown
+     */
+    public void publishIssued(List<Ticket> tickets, List<String> customerEmails) {
+        try {
+            // One channel for the whole batch
+            rabbitTemplate.invoke(operations -> {
+                for (int i = 0; i < tickets.size(); i++) {
+                    operations.convertAndSend(RabbitMQConfig.TICKET_EXCHANGE,
+                            RabbitMQConfig.TICKET_ISSUED_ROUTING_KEY, toMessage(tickets.get(i), customerEmails.get(i)));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to publish {} ticket issued events: {}", tickets.size(), e.getMessage());
+        }
+    }
+
+    private TicketIssuedMessage toMessage(Ticket ticket, String customerEmail) {
+        return new TicketIssuedMessage(ticket.getId(), ticket.getTicketNumber(), ticket.getRegistrationId(),
+                ticket.getEventId(), ticket.getUserId(), ticket.getPrice(), ticket.getIssuedAt(),
+                customerEmail);
+    }
+}
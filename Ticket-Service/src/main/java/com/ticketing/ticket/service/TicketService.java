@@ -1,17 +1,22 @@
 package com.ticketing.ticket.service;
 
+import com.ticketing.ticket.dto.CursorPage;
+import com.ticketing.ticket.dto.QrMatrix;
+import com.ticketing.ticket.dto.TicketBatchRequest;
+import com.ticketing.ticket.dto.TicketSummary;
 import com.ticketing.ticket.entity.Ticket;
+import com.ticketing.ticket.qr.QrCodeRenderer;
 import com.ticketing.ticket.repository.TicketRepository;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,30 +25,141 @@ import java.util.UUID;
 public class TicketService {
 
     private final TicketRepository ticketRepository;
+    private final QrCodeRenderer qrCodeRenderer;
+    private final ProcessedMessageLedger processedMessageLedger;
+
+    @Value("${ticket.batch.max-quantity:50}")
+    private int maxBatchQuantity;
 
     public Ticket createTicket(Ticket ticket) {
         ticket.setTicketNumber(UUID.randomUUID().toString());
         ticket.setIssuedAt(LocalDateTime.now());
         ticket.setStatus("ACTIVE");
-        ticket.setQrCode(generateQRCode(ticket.getTicketNumber()));
         return ticketRepository.save(ticket);
     }
 
-    public List<Ticket> getUserTickets(Long userId) {
-        return ticketRepository.findByUserId(userId);
+    /**
+     * Creates the ticket for a successful payment and records the transaction
+     * in the ledger atomically; a duplicate transaction id rolls both back.
+     */
+    @Transactional
+    public Ticket createTicketForPayment(Ticket ticket, String transactionId) {
+        Ticket createdTicket = createTicket(ticket);
+        processedMessageLedger.record(transactionId, createdTicket.getId());
+        return createdTicket;
+    }
+
+    /**
+     * Batch form of {@link #createTicketForPayment}: inserts all tickets and
+     * their ledger rows in one transaction, two JDBC batches in total.
+     */
+    @Transactional
+    public List<Ticket> createTicketsForPayments(List<Ticket> tickets, List<String> transactionIds) {
+        LocalDateTime issuedAt = LocalDateTime.now();
+        for (Ticket ticket : tickets) {
+            ticket.setTicketNumber(UUID.randomUUID().toString());
+            ticket.setIssuedAt(issuedAt);
+            ticket.setStatus("ACTIVE");
+        }
+        List<Ticket> created = ticketRepository.insertBatch(tickets);
+        List<Long> ticketIds = new ArrayList<>(created.size());
+        for (Ticket ticket : created) {
+            ticketIds.add(ticket.getId());
+        }
+        processedMessageLedger.recordAll(transactionIds, ticketIds);
+        return created;
+    }
+
+    /**
+     * Issues tickets for a registration up to the requested quantity. Tickets
+     * already issued for the registration count towards it, so a redelivered
+     * request does not issue duplicates; the registration is locked for the
+     * transaction so two concurrent deliveries cannot both count zero.
+     */
+    @Transactional
+    public List<TicketSummary> createTickets(TicketBatchRequest request) {
+        validate(request);
+        ticketRepository.lockRegistration(request.getRegistrationId());
+        List<TicketSummary> existing = ticketRepository.findSummariesByRegistrationId(request.getRegistrationId());
+        int missing = request.getQuantity() - existing.size();
+        if (missing <= 0) {
+            return existing;
+        }
+
+        LocalDateTime issuedAt = LocalDateTime.now();
+        List<Ticket> tickets = new ArrayList<>(missing);
+        for (int i = 0; i < missing; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTicketNumber(UUID.randomUUID().toString());
+            ticket.setRegistrationId(request.getRegistrationId());
+            ticket.setEventId(request.getEventId());
+            ticket.setUserId(request.getUserId());
+            ticket.setStatus("ACTIVE");
+            ticket.setIssuedAt(issuedAt);
+            ticket.setPrice(request.getPrice());
+            tickets.add(ticket);
+        }
+
+        List<TicketSummary> created = new ArrayList<>(existing);
+        for (Ticket ticket : ticketRepository.insertBatch(tickets)) {
+            created.add(new TicketSummary(ticket.getId(), ticket.getTicketNumber(), ticket.getRegistrationId(),
+                ticket.getEventId(), ticket.getUserId(), ticket.getStatus(), ticket.getIssuedAt(),
+                ticket.getSeatNumber(), ticket.getPrice()));
+        }
+        return created;
+    }
+
+    private void validate(TicketBatchRequest request) {
+        if (request.getRegistrationId() == null || request.getEventId() == null || request.getUserId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "registrationId, eventId and userId are required");
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be greater than 0");
+        }
+        if (request.getQuantity() > maxBatchQuantity) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Quantity must be at most " + maxBatchQuantity);
+        }
+        if (request.getPrice() != null && request.getPrice() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Price must not be negative");
+        }
+    }
+
+    public List<TicketSummary> getUserTickets(Long userId) {
+        return ticketRepository.findSummariesByUserId(userId);
+    }
+
+    public List<TicketSummary> getEventTickets(Long eventId) {
+        return ticketRepository.findSummariesByEventId(eventId);
     }
 
-    public List<Ticket> getEventTickets(Long eventId) {
-        return ticketRepository.findByEventId(eventId);
+    public CursorPage<TicketSummary> getEventTicketsPage(Long eventId, String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        Long afterId = CursorPage.decode(cursor);
+        List<TicketSummary> rows = ticketRepository.findSummariesByEventIdAfter(
+            eventId, afterId != null ? afterId : 0L, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, TicketSummary::getId);
     }
 
-    public Ticket getTicketById(Long id) {
-        return ticketRepository.findById(id)
+    public byte[] getQRCodePng(Long id, int size) {
+        return qrCodeRenderer.renderPng(getTicketNumberById(id), size);
+    }
+
+    public byte[] getQRCodeSvg(Long id, int size) {
+        return qrCodeRenderer.renderSvg(getTicketNumberById(id), size);
+    }
+
+    public QrMatrix getQRCodeMatrix(Long id) {
+        return qrCodeRenderer.renderMatrix(getTicketNumberById(id));
+    }
+
+    public TicketSummary getTicketById(Long id) {
+        return ticketRepository.findSummaryById(id)
             .orElseThrow(() -> new RuntimeException("Ticket not found"));
     }
 
-    public Ticket getTicketByNumber(String ticketNumber) {
-        return ticketRepository.findByTicketNumber(ticketNumber)
+    public TicketSummary getTicketByNumber(String ticketNumber) {
+        return ticketRepository.findSummaryByTicketNumber(ticketNumber)
             .orElseThrow(() -> new RuntimeException("Ticket not found"));
     }
 
@@ -59,16 +175,8 @@ public class TicketService {
         ticketRepository.save(ticket);
     }
 
-    private String generateQRCode(String text) {
-        try {
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, 200, 200);
-            ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
-            MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutputStream);
-            byte[] pngData = pngOutputStream.toByteArray();
-            return "data:image/png;base64," + Base64.getEncoder().encodeToString(pngData);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating QR code", e);
-        }
+    private String getTicketNumberById(Long id) {
+        return ticketRepository.findTicketNumberById(id)
+            .orElseThrow(() -> new RuntimeException("Ticket not found"));
     }
 }
@@ -33,6 +33,7 @@ export default function LoginPage() {
       console.log('🔐 All response keys:', Object.keys(response))
       
       localStorage.setItem('authToken', response.token)
+      localStorage.setItem('refreshToken', response.refreshToken)
       localStorage.setItem('userName', `${response.firstName} ${response.lastName}`)
       localStorage.setItem('userId', response.id?.toString() || '')
       localStorage.setItem('userRole', response.role)
@@ -1,6 +1,6 @@
 'use client';
 
-import { useState, useEffect, Suspense } from 'react';
+import { useState, useEffect, useRef, Suspense } from 'react';
 import { useSearchParams, useRouter } from 'next/navigation';
 import { Card, CardContent, CardDescription, CardFooter, CardHeader, CardTitle } from '@/components/ui/card';
 import { Button } from '@/components/ui/button';
@@ -52,6 +52,8 @@ function PaymentPageContent() {
   const [processing, setProcessing] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [success, setSuccess] = useState(false);
+  // Idempotency-Key for the current checkout attempt; replaced after a failed attempt
+  const checkoutKeyRef = useRef<string | null>(null);
 
   // Card details state
   const [cardNumber, setCardNumber] = useState('');
@@ -225,12 +227,18 @@ function PaymentPageContent() {
         throw new Error('Invalid event ID');
       }
       
+      if (!checkoutKeyRef.current) {
+        checkoutKeyRef.current = crypto.randomUUID();
+      }
+
       // Use API Gateway instead of direct service call
       const response = await fetch('http://10.74.115.219:8080/api/payments/create-intent', {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
-          'Origin': 'http://10.74.115.219:3000'
+          'Origin': 'http://10.74.115.219:3000',
+          // Same key for repeated clicks within one attempt, so only one intent is created
+          'Idempotency-Key': checkoutKeyRef.current
         },
         body: JSON.stringify({
           bookingId: bookingId,
@@ -360,6 +368,9 @@ function PaymentPageContent() {
     } catch (err: any) {
       console.error('Payment error:', err);
       setError(err.message || 'Payment failed. Please try again.');
+      // The next try is a new attempt with a new intent, not a replay of this one
+      checkoutKeyRef.current = null;
+      setPaymentIntent(null);
     } finally {
       setProcessing(false);
     }
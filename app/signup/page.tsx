@@ -84,6 +84,7 @@ export default function SignupPage() {
       console.log('✅ User ID from response:', response.id)
       
       localStorage.setItem('authToken', response.token)
+      localStorage.setItem('refreshToken', response.refreshToken)
       localStorage.setItem('userName', `${formData.firstName} ${formData.lastName}`)
       localStorage.setItem('userId', response.id?.toString() || '')
       localStorage.setItem('userRole', formData.role)
@@ -694,8 +694,8 @@ export default function TicketsPage() {
 
                       <div className="bg-gradient-to-br from-slate-100 to-slate-200 p-6 rounded-2xl flex justify-center shadow-inner">
                         <div className="w-32 h-32 bg-white rounded-xl border-2 border-dashed border-slate-300 flex items-center justify-center shadow-md">
-                          {ticket.qrCode ? (
-                            <img src={ticket.qrCode} alt="QR Code" className="w-full h-full object-contain" />
+                          {ticket.qrCodeUrl ? (
+                            <img src={ticketsApi.qrCodeImageUrl(ticket.qrCodeUrl)} alt="QR Code" className="w-full h-full object-contain" />
                           ) : (
                             <QrCode className="w-12 h-12 text-slate-400" />
                           )}
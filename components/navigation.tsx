@@ -25,6 +25,7 @@ import {
   DropdownMenuTrigger,
 } from '@/components/ui/dropdown-menu'
 import { Avatar, AvatarFallback } from '@/components/ui/avatar'
+import { authApi } from '@/lib/api-client'
 
 export default function Navigation() {
   const router = useRouter()
@@ -67,10 +68,7 @@ export default function Navigation() {
   }
 
   const handleLogout = () => {
-    localStorage.removeItem('authToken')
-    localStorage.removeItem('userName')
-    localStorage.removeItem('userId')
-    localStorage.removeItem('userRole')
+    authApi.logout()
     localStorage.removeItem('userEmail')
     setIsLoggedIn(false)
     setMobileMenuOpen(false)
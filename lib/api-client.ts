@@ -8,12 +8,64 @@ interface ApiOptions extends RequestInit {
   headers?: Record<string, string>
 }
 
+// Shared so concurrent 401s trigger a single refresh
+let refreshInFlight: Promise<boolean> | null = null
+
+// Renew this long before the access token expires
+const REFRESH_MARGIN_MS = 30_000
+
+// Services called directly do not check the access token, so expiry is tracked here rather than waiting for a 401
+function expiresSoon(token: string): boolean {
+  try {
+    const payload = JSON.parse(atob(token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')))
+    return typeof payload.exp === 'number' && payload.exp * 1000 - Date.now() < REFRESH_MARGIN_MS
+  } catch (e) {
+    return false
+  }
+}
+
+// Swap the stored refresh token for a new access token; false if the session is over
+async function refreshAccessToken(): Promise<boolean> {
+  const refreshToken = typeof window !== 'undefined' ? localStorage.getItem('refreshToken') : null
+  if (!refreshToken) {
+    return false
+  }
+  if (!refreshInFlight) {
+    refreshInFlight = (async () => {
+      try {
+        const response = await fetch(`${AUTH_SERVICE_URL}/api/auth/refresh`, {
+          method: 'POST',
+          headers: { 'Content-Type': 'application/json' },
+          body: JSON.stringify({ refreshToken }),
+        })
+        if (!response.ok) {
+          localStorage.removeItem('refreshToken')
+          return false
+        }
+        const data = await response.json()
+        localStorage.setItem('authToken', data.token)
+        localStorage.setItem('refreshToken', data.refreshToken)
+        return true
+      } catch (e) {
+        return false
+      } finally {
+        refreshInFlight = null
+      }
+    })()
+  }
+  return refreshInFlight
+}
+
 export async function apiCall<T>(
   endpoint: string,
   options: ApiOptions = {},
-  serviceUrl?: string
+  serviceUrl?: string,
+  retried = false
 ): Promise<T> {
-  const token = typeof window !== 'undefined' ? localStorage.getItem('authToken') : null
+  let token = typeof window !== 'undefined' ? localStorage.getItem('authToken') : null
+  if (token && !endpoint.startsWith('/api/auth') && expiresSoon(token) && await refreshAccessToken()) {
+    token = localStorage.getItem('authToken')
+  }
   
   const headers: Record<string, string> = {
     'Content-Type': 'application/json',
@@ -44,6 +96,11 @@ export async function apiCall<T>(
     headers,
   })
 
+  // Access tokens are short-lived; renew once and replay the request
+  if (response.status === 401 && token && !retried && !endpoint.startsWith('/api/auth') && await refreshAccessToken()) {
+    return apiCall<T>(endpoint, options, serviceUrl, true)
+  }
+
   if (!response.ok) {
     let errorMessage = response.statusText
     try {
@@ -75,6 +132,16 @@ export const authApi = {
     }),
   
   logout: () => {
+    const refreshToken = localStorage.getItem('refreshToken')
+    if (refreshToken) {
+      // Revoke server-side; the local session ends either way
+      fetch(`${AUTH_SERVICE_URL}/api/auth/logout`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken }),
+      }).catch(() => {})
+    }
+    localStorage.removeItem('refreshToken')
     localStorage.removeItem('authToken')
     localStorage.removeItem('userName')
     localStorage.removeItem('userId')
@@ -151,4 +218,6 @@ export const ticketsApi = {
   
   validateTicket: (ticketNumber: string) =>
     apiCall(`/api/tickets/${ticketNumber}/validate`, { method: 'POST' }),
+
+  qrCodeImageUrl: (qrCodeUrl: string) => `${TICKET_SERVICE_URL}${qrCodeUrl}`,
 }